@@ -0,0 +1,29 @@
+package dev.veyno.aiFoliaChunkLoader.benchmark;
+
+import dev.veyno.aiFoliaChunkLoader.KeepRegion;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+final class BenchmarkRegions {
+    private static final String[] WORLDS = {"world", "world_nether", "world_the_end", "farm"};
+
+    private BenchmarkRegions() {
+    }
+
+    static List<KeepRegion> generate(int count, long seed) {
+        Random random = new Random(seed);
+        List<KeepRegion> regions = new ArrayList<>(count);
+        int spread = Math.max(64, (int) Math.sqrt(count) * 48);
+        for (int i = 0; i < count; i++) {
+            String world = WORLDS[random.nextInt(WORLDS.length)];
+            regions.add(new KeepRegion(new UUID(random.nextLong(), random.nextLong()), world, null,
+                    random.nextInt(spread * 2) - spread, random.nextInt(spread * 2) - spread, random.nextInt(9),
+                    "player" + random.nextInt(500), Instant.ofEpochMilli(1_700_000_000_000L + i * 1000L)));
+        }
+        return regions;
+    }
+}
@@ -0,0 +1,74 @@
+package dev.veyno.aiFoliaChunkLoader.benchmark;
+
+import dev.veyno.aiFoliaChunkLoader.KeepRegion;
+import dev.veyno.aiFoliaChunkLoader.RegionIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegionIndexBenchmark {
+    @Param({"100", "10000", "100000"})
+    private int regions;
+
+    private RegionIndex index;
+    private KeepRegion[] probes;
+    private String[] prefixes;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        List<KeepRegion> generated = BenchmarkRegions.generate(regions, 42L);
+        index = RegionIndex.of(generated);
+        probes = new KeepRegion[1024];
+        prefixes = new String[1024];
+        for (int i = 0; i < probes.length; i++) {
+            KeepRegion region = generated.get((i * 7919) % generated.size());
+            probes[i] = region;
+            prefixes[i] = region.shortId();
+        }
+    }
+
+    @Benchmark
+    public boolean hasRegion() {
+        return index.containsKey(probes[next()]);
+    }
+
+    @Benchmark
+    public List<KeepRegion> idPrefixLookup() {
+        return index.byIdPrefix(prefixes[next()], 2);
+    }
+
+    @Benchmark
+    public List<KeepRegion> regionsAtChunk() {
+        KeepRegion probe = probes[next()];
+        return index.at(probe.getWorldName(), probe.getCenterX(), probe.getCenterZ());
+    }
+
+    @Benchmark
+    public RegionIndex addAndRemove() {
+        KeepRegion probe = probes[next()];
+        return index.minus(probe).plus(probe);
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (probes.length - 1);
+        return cursor;
+    }
+}
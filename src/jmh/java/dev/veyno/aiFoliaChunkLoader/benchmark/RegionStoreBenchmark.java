@@ -0,0 +1,78 @@
+package dev.veyno.aiFoliaChunkLoader.benchmark;
+
+import dev.veyno.aiFoliaChunkLoader.BinaryRegionStore;
+import dev.veyno.aiFoliaChunkLoader.KeepRegion;
+import dev.veyno.aiFoliaChunkLoader.RegionStore;
+import dev.veyno.aiFoliaChunkLoader.YamlRegionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RegionStoreBenchmark {
+    @Param({"100", "10000", "100000"})
+    private int regions;
+
+    @Param({"yaml", "binary"})
+    private String format;
+
+    private Path folder;
+    private RegionStore store;
+    private List<KeepRegion> data;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        folder = Files.createTempDirectory("keepregion-bench");
+        Logger logger = Logger.getLogger("RegionStoreBenchmark");
+        File dataFolder = folder.toFile();
+        store = "binary".equals(format)
+                ? new BinaryRegionStore(dataFolder, logger, Integer.MAX_VALUE)
+                : new YamlRegionStore(dataFolder, logger);
+        data = BenchmarkRegions.generate(regions, 7L);
+        store.save(data);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(folder)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<KeepRegion> load() {
+        return store.load();
+    }
+
+    @Benchmark
+    public void save() {
+        store.save(data);
+    }
+}
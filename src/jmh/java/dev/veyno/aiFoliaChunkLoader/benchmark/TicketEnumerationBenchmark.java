@@ -0,0 +1,96 @@
+package dev.veyno.aiFoliaChunkLoader.benchmark;
+
+import dev.veyno.aiFoliaChunkLoader.ChunkKey;
+import dev.veyno.aiFoliaChunkLoader.ChunkRefCounts;
+import dev.veyno.aiFoliaChunkLoader.ChunkSections;
+import dev.veyno.aiFoliaChunkLoader.KeepRegion;
+import io.papermc.paper.threadedregions.scheduler.RegionScheduler;
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketEnumerationBenchmark {
+    @Param({"4", "16", "32"})
+    private int radius;
+
+    private KeepRegion region;
+    private World world;
+    private RegionScheduler scheduler;
+    private int scheduled;
+
+    @Setup
+    public void setup() {
+        region = new KeepRegion(UUID.randomUUID(), "world", null, 100, -250, radius, "bench", Instant.EPOCH);
+        world = (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[]{World.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getName" -> "world";
+                    case "getUID" -> new UUID(0L, 0L);
+                    default -> null;
+                });
+        scheduler = (RegionScheduler) Proxy.newProxyInstance(RegionScheduler.class.getClassLoader(),
+                new Class<?>[]{RegionScheduler.class}, (proxy, method, args) -> {
+                    if ("execute".equals(method.getName())) {
+                        ((Runnable) args[4]).run();
+                        scheduled++;
+                    }
+                    return null;
+                });
+    }
+
+    @Benchmark
+    public long[] enumerateChunks() {
+        return region.chunkKeys();
+    }
+
+    @Benchmark
+    public int acquireAndReleaseTickets() {
+        ChunkRefCounts counts = new ChunkRefCounts();
+        long[] chunks = region.chunkKeys();
+        int acquired = 0;
+        for (long key : chunks) {
+            if (counts.increment(key) == 1) {
+                chunks[acquired++] = key;
+            }
+        }
+        int released = 0;
+        for (long key : chunks) {
+            if (counts.decrement(key) == 0) {
+                released++;
+            }
+        }
+        return acquired + released;
+    }
+
+    @Benchmark
+    public int scheduleSections() {
+        int before = scheduled;
+        for (long[] section : ChunkSections.split(region.chunkKeys(), 4)) {
+            scheduler.execute(null, world, ChunkKey.x(section[0]), ChunkKey.z(section[0]), () -> {
+                for (long key : section) {
+                    world.removePluginChunkTicket(ChunkKey.x(key), ChunkKey.z(key), null);
+                }
+            });
+        }
+        return scheduled - before;
+    }
+}
@@ -0,0 +1,168 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Objects;
+
+public final class ActivationPolicy {
+    public static final ActivationPolicy ALWAYS = new ActivationPolicy(Type.ALWAYS, 0, 0, 0.0D);
+
+    private static final double MSPT_RESUME_FACTOR = 0.9D;
+
+    private final Type type;
+    private final int first;
+    private final int second;
+    private final double mspt;
+
+    private ActivationPolicy(Type type, int first, int second, double mspt) {
+        this.type = type;
+        this.first = first;
+        this.second = second;
+        this.mspt = mspt;
+    }
+
+    public static ActivationPolicy window(LocalTime from, LocalTime to) {
+        if (from.equals(to)) {
+            throw new IllegalArgumentException("Time window must not be empty");
+        }
+        return new ActivationPolicy(Type.WINDOW, from.getHour() * 60 + from.getMinute(), to.getHour() * 60 + to.getMinute(), 0.0D);
+    }
+
+    public static ActivationPolicy ownerOnline() {
+        return new ActivationPolicy(Type.OWNER, 0, 0, 0.0D);
+    }
+
+    public static ActivationPolicy load(int maxPlayers, double maxMspt) {
+        if (maxPlayers < 0 || maxMspt < 0.0D) {
+            throw new IllegalArgumentException("Limits must not be negative");
+        }
+        return new ActivationPolicy(Type.LOAD, maxPlayers, 0, maxMspt);
+    }
+
+    public static ActivationPolicy duty(int onMinutes, int offMinutes) {
+        if (onMinutes <= 0 || offMinutes < 0) {
+            throw new IllegalArgumentException("Duty cycle needs a positive on time");
+        }
+        return new ActivationPolicy(Type.DUTY, onMinutes, offMinutes, 0.0D);
+    }
+
+    public static ActivationPolicy parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return ALWAYS;
+        }
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        try {
+            switch (parts[0]) {
+                case "always":
+                    return ALWAYS;
+                case "owner":
+                    return ownerOnline();
+                case "window": {
+                    String[] bounds = parts.length == 2 ? parts[1].split("-") : new String[0];
+                    if (bounds.length != 2) {
+                        break;
+                    }
+                    return window(LocalTime.parse(bounds[0]), LocalTime.parse(bounds[1]));
+                }
+                case "load":
+                    if (parts.length < 2 || parts.length > 3) {
+                        break;
+                    }
+                    return load(Integer.parseInt(parts[1]), parts.length == 3 ? Double.parseDouble(parts[2]) : 0.0D);
+                case "duty":
+                    if (parts.length != 3) {
+                        break;
+                    }
+                    return duty(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                default:
+                    break;
+            }
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid activation policy: " + spec, ex);
+        }
+        throw new IllegalArgumentException("Invalid activation policy: " + spec);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public boolean isAlways() {
+        return type == Type.ALWAYS;
+    }
+
+    public boolean isSatisfied(KeepRegion region, Conditions conditions, boolean currentlyActive) {
+        return switch (type) {
+            case ALWAYS -> true;
+            case WINDOW -> {
+                int minute = conditions.getMinuteOfDay();
+                yield first <= second ? minute >= first && minute < second : minute >= first || minute < second;
+            }
+            case OWNER -> conditions.isOwnerOnline(region);
+            case LOAD -> {
+                if (first > 0 && conditions.getOnlinePlayers() >= first) {
+                    yield false;
+                }
+                double limit = currentlyActive ? mspt : mspt * MSPT_RESUME_FACTOR;
+                yield mspt <= 0.0D || conditions.getLoad(region).within(limit);
+            }
+            case DUTY -> {
+                long cycle = first + second;
+                long offset = Math.floorMod(region.getId().getLeastSignificantBits(), cycle);
+                yield Math.floorMod(conditions.getEpochMinute() + offset, cycle) < first;
+            }
+        };
+    }
+
+    public String toSpec() {
+        return switch (type) {
+            case ALWAYS -> "always";
+            case WINDOW -> "window " + formatMinute(first) + "-" + formatMinute(second);
+            case OWNER -> "owner";
+            case LOAD -> "load " + first + (mspt > 0.0D ? " " + mspt : "");
+            case DUTY -> "duty " + first + " " + second;
+        };
+    }
+
+    private static String formatMinute(int minute) {
+        return String.format(Locale.ROOT, "%02d:%02d", minute / 60, minute % 60);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ActivationPolicy policy)) {
+            return false;
+        }
+        return type == policy.type && first == policy.first && second == policy.second
+                && Double.compare(mspt, policy.mspt) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, first, second, mspt);
+    }
+
+    public enum Type {
+        ALWAYS,
+        WINDOW,
+        OWNER,
+        LOAD,
+        DUTY
+    }
+
+    public interface Conditions {
+        int getMinuteOfDay();
+
+        long getEpochMinute();
+
+        int getOnlinePlayers();
+
+        TickMonitor.Load getLoad(KeepRegion region);
+
+        boolean isOwnerOnline(KeepRegion region);
+    }
+}
@@ -1,18 +1,40 @@
 package dev.veyno.aiFoliaChunkLoader;
 
+import dev.veyno.aiFoliaChunkLoader.api.KeepRegionApi;
 import org.bukkit.command.PluginCommand;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.logging.Level;
+
 public final class AiFoliaChunkLoader extends JavaPlugin {
     private RegionManager regionManager;
+    private RegionStore store;
 
     @Override
     public void onEnable() {
         saveDefaultConfig();
-        RegionStore store = new RegionStore(this);
+        store = createStore();
         regionManager = new RegionManager(this, store);
-        regionManager.loadRegions();
-        regionManager.applyAllTickets();
+        try {
+            regionManager.loadRegions();
+        } catch (IllegalStateException ex) {
+            getLogger().log(Level.SEVERE, "Could not load regions, disabling to avoid overwriting them", ex);
+            regionManager = null;
+            getServer().getPluginManager().disablePlugin(this);
+            return;
+        }
+        regionManager.start();
+        if (store instanceof SharedRegionStore shared) {
+            shared.watch(regionManager::applyExternal);
+        }
+
+        KeepRegionService service = new KeepRegionService(regionManager);
+        getServer().getServicesManager().register(KeepRegionApi.class, service, this, ServicePriority.Normal);
+        getServer().getPluginManager().registerEvents(service, this);
 
         PluginCommand command = getCommand("keepregion");
         if (command != null) {
@@ -24,10 +46,42 @@ public final class AiFoliaChunkLoader extends JavaPlugin {
         }
     }
 
+    private RegionStore createStore() {
+        YamlRegionStore yamlStore = new YamlRegionStore(this);
+        String type = getConfig().getString("storage.type", "yaml");
+        if ("shared".equalsIgnoreCase(type)) {
+            return new SharedRegionStore(this, region -> regionManager != null && regionManager.isWorldLoaded(region));
+        }
+        if (!"binary".equalsIgnoreCase(type)) {
+            return yamlStore;
+        }
+        BinaryRegionStore binaryStore = new BinaryRegionStore(this);
+        File yamlFile = new File(getDataFolder(), "regions.yml");
+        if (!binaryStore.exists() && yamlFile.isFile()) {
+            List<KeepRegion> regions = yamlStore.load();
+            try {
+                binaryStore.save(regions);
+            } catch (IOException ex) {
+                getLogger().log(Level.SEVERE, "Could not migrate regions.yml to regions.dat, staying on YAML", ex);
+                return yamlStore;
+            }
+            File migrated = new File(getDataFolder(), "regions.yml.migrated");
+            if (!yamlFile.renameTo(migrated)) {
+                getLogger().warning("Could not rename regions.yml after migration");
+            }
+            getLogger().info("Migrated " + regions.size() + " regions from regions.yml to regions.dat");
+        }
+        return binaryStore;
+    }
+
     @Override
     public void onDisable() {
+        getServer().getServicesManager().unregisterAll(this);
+        if (store instanceof SharedRegionStore shared) {
+            shared.close();
+        }
         if (regionManager != null) {
-            regionManager.removeAllTickets();
+            regionManager.shutdown();
         }
     }
 }
@@ -0,0 +1,411 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class BinaryRegionStore implements RegionStore {
+    private static final int MAGIC = 0x4B52474E;
+    private static final int VERSION = 1;
+    private static final int RECORD_HEADER_SIZE = 8 + 8 + 4 + 8 + 8 + 4 + 4 + 4 + 4 + 8 + 4 + 4 + 8 + 8 + 1;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final byte OP_UPSERT = 1;
+    private static final byte OP_REMOVE = 2;
+
+    private final Logger logger;
+    private final Path dataFile;
+    private final Path journalFile;
+    private final int compactAfter;
+    private int journalEntries;
+
+    public BinaryRegionStore(JavaPlugin plugin) {
+        this(plugin.getDataFolder(), plugin.getLogger(), plugin.getConfig().getInt("storage.binary.compact-after", 1000));
+    }
+
+    public BinaryRegionStore(File dataFolder, Logger logger, int compactAfter) {
+        this.logger = logger;
+        this.dataFile = new File(dataFolder, "regions.dat").toPath();
+        this.journalFile = new File(dataFolder, "regions.journal").toPath();
+        this.compactAfter = Math.max(1, compactAfter);
+    }
+
+    public boolean exists() {
+        return Files.exists(dataFile) || Files.exists(journalFile);
+    }
+
+    @Override
+    public synchronized List<KeepRegion> load() {
+        Map<UUID, KeepRegion> regions = new LinkedHashMap<>();
+        try {
+            readSnapshot(regions);
+        } catch (IOException | RuntimeException ex) {
+            throw new IllegalStateException("Failed to read regions.dat, kept a copy at " + preserve(dataFile), ex);
+        }
+        try {
+            journalEntries = replayJournal(regions);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to replay regions.journal, kept a copy at " + preserve(journalFile), ex);
+        }
+        List<KeepRegion> result = new ArrayList<>(regions.values());
+        if (Files.exists(journalFile)) {
+            try {
+                save(result);
+            } catch (IOException ex) {
+                logger.log(Level.WARNING, "Failed to compact regions.journal, keeping it for now", ex);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void save(List<KeepRegion> regions) throws IOException {
+        writeSnapshot(regions);
+        Files.deleteIfExists(journalFile);
+        journalEntries = 0;
+    }
+
+    @Override
+    public synchronized void apply(List<RegionChange> changes, Supplier<List<KeepRegion>> snapshot)
+            throws IOException {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (journalEntries + changes.size() > compactAfter) {
+            save(snapshot.get());
+            return;
+        }
+        ensureFolder();
+        boolean fresh = !Files.exists(journalFile);
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+            if (fresh) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+            }
+            for (RegionChange change : changes) {
+                writeJournalEntry(out, change);
+            }
+            out.flush();
+            channel.force(false);
+            journalEntries += changes.size();
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, "Failed to append to regions.journal, compacting instead", ex);
+            save(snapshot.get());
+        }
+    }
+
+    private void readSnapshot(Map<UUID, KeepRegion> regions) throws IOException {
+        if (!Files.exists(dataFile)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a region data file");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported region data version " + version);
+            }
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                UUID id = new UUID(buffer.getLong(), buffer.getLong());
+                String worldName = strings[buffer.getInt()];
+                long worldMost = buffer.getLong();
+                long worldLeast = buffer.getLong();
+                UUID worldUuid = worldMost == 0L && worldLeast == 0L ? null : new UUID(worldMost, worldLeast);
+                int centerX = buffer.getInt();
+                int centerZ = buffer.getInt();
+                int radius = buffer.getInt();
+                int createdByIndex = buffer.getInt();
+                long createdAtMillis = buffer.getLong();
+                int priority = buffer.getInt();
+                int policyIndex = buffer.getInt();
+                UUID createdById = readUuid(buffer.getLong(), buffer.getLong());
+                TicketMode ticketMode = TicketMode.values()[buffer.get()];
+                RegionShape shape = readShape(buffer);
+                regions.put(id, KeepRegion.builder(id, worldName, centerX, centerZ).worldUuid(worldUuid)
+                        .radius(radius).createdBy(createdByIndex < 0 ? null : strings[createdByIndex])
+                        .createdById(createdById)
+                        .createdAt(createdAtMillis == NO_TIME ? null : Instant.ofEpochMilli(createdAtMillis))
+                        .priority(priority).shape(shape)
+                        .policy(policyIndex < 0 ? ActivationPolicy.ALWAYS : ActivationPolicy.parse(strings[policyIndex]))
+                        .ticketMode(ticketMode).build());
+            }
+        }
+    }
+
+    private void writeSnapshot(List<KeepRegion> regions) throws IOException {
+        ensureFolder();
+        Map<String, Integer> stringIds = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int stringBytes = 0;
+        int shapeBytes = 0;
+        for (KeepRegion region : regions) {
+            shapeBytes += shapeSize(region.getShape());
+            stringBytes += intern(region.getWorldName(), stringIds, strings);
+            if (region.getCreatedBy() != null) {
+                stringBytes += intern(region.getCreatedBy(), stringIds, strings);
+            }
+            if (!region.getPolicy().isAlways()) {
+                stringBytes += intern(region.getPolicy().toSpec(), stringIds, strings);
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 4 + 4 + stringBytes + 4 + regions.size() * RECORD_HEADER_SIZE + shapeBytes);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(strings.size());
+        for (byte[] bytes : strings) {
+            buffer.putShort((short) bytes.length).put(bytes);
+        }
+        buffer.putInt(regions.size());
+        for (KeepRegion region : regions) {
+            buffer.putLong(region.getId().getMostSignificantBits()).putLong(region.getId().getLeastSignificantBits());
+            buffer.putInt(stringIds.get(region.getWorldName()));
+            UUID worldUuid = region.getWorldUuid();
+            buffer.putLong(worldUuid == null ? 0L : worldUuid.getMostSignificantBits())
+                    .putLong(worldUuid == null ? 0L : worldUuid.getLeastSignificantBits());
+            buffer.putInt(region.getCenterX()).putInt(region.getCenterZ()).putInt(region.getRadius());
+            buffer.putInt(region.getCreatedBy() == null ? -1 : stringIds.get(region.getCreatedBy()));
+            buffer.putLong(region.getCreatedAt() == null ? NO_TIME : region.getCreatedAt().toEpochMilli());
+            buffer.putInt(region.getPriority());
+            buffer.putInt(region.getPolicy().isAlways() ? -1 : stringIds.get(region.getPolicy().toSpec()));
+            UUID createdById = region.getCreatedById();
+            buffer.putLong(createdById == null ? 0L : createdById.getMostSignificantBits())
+                    .putLong(createdById == null ? 0L : createdById.getLeastSignificantBits());
+            buffer.put((byte) region.getTicketMode().ordinal());
+            writeShape(buffer, region.getShape());
+        }
+        buffer.flip();
+        Path temp = dataFile.resolveSibling(dataFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, dataFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, dataFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private int replayJournal(Map<UUID, KeepRegion> regions) throws IOException {
+        if (!Files.exists(journalFile)) {
+            return 0;
+        }
+        int entries = 0;
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(journalFile));
+             DataInputStream in = new DataInputStream(raw)) {
+            int version;
+            try {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("Not a region journal");
+                }
+                version = in.readInt();
+            } catch (EOFException ex) {
+                return 0;
+            }
+            if (version != VERSION) {
+                throw new IOException("Unsupported region journal version " + version);
+            }
+            while (true) {
+                int op;
+                try {
+                    op = in.readByte();
+                } catch (EOFException ex) {
+                    break;
+                }
+                try {
+                    UUID id = new UUID(in.readLong(), in.readLong());
+                    if (op == OP_REMOVE) {
+                        regions.remove(id);
+                    } else if (op == OP_UPSERT) {
+                        regions.put(id, readJournalRegion(in, id));
+                    } else {
+                        logger.warning("Unknown journal operation " + op + ", ignoring rest of regions.journal");
+                        break;
+                    }
+                } catch (EOFException | RuntimeException ex) {
+                    logger.log(Level.WARNING, "Ignoring torn entry at end of regions.journal", ex);
+                    break;
+                }
+                entries++;
+            }
+        }
+        return entries;
+    }
+
+    private KeepRegion readJournalRegion(DataInputStream in, UUID id) throws IOException {
+        String worldName = in.readUTF();
+        long worldMost = in.readLong();
+        long worldLeast = in.readLong();
+        UUID worldUuid = worldMost == 0L && worldLeast == 0L ? null : new UUID(worldMost, worldLeast);
+        int centerX = in.readInt();
+        int centerZ = in.readInt();
+        int radius = in.readInt();
+        String createdBy = in.readBoolean() ? in.readUTF() : null;
+        long createdAtMillis = in.readLong();
+        int priority = in.readInt();
+        ActivationPolicy policy = in.readBoolean() ? ActivationPolicy.parse(in.readUTF()) : ActivationPolicy.ALWAYS;
+        UUID createdById = readUuid(in.readLong(), in.readLong());
+        TicketMode ticketMode = TicketMode.values()[in.readUnsignedByte()];
+        RegionShape.Type type = RegionShape.Type.values()[in.readUnsignedByte()];
+        int[] points = new int[in.readInt()];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = in.readInt();
+        }
+        long[] mask = new long[in.readInt()];
+        for (int i = 0; i < mask.length; i++) {
+            mask[i] = in.readLong();
+        }
+        RegionShape shape = RegionShape.of(type, points, mask);
+        return KeepRegion.builder(id, worldName, centerX, centerZ).worldUuid(worldUuid).radius(radius)
+                .createdBy(createdBy).createdById(createdById)
+                .createdAt(createdAtMillis == NO_TIME ? null : Instant.ofEpochMilli(createdAtMillis))
+                .priority(priority).shape(shape).policy(policy).ticketMode(ticketMode).build();
+    }
+
+    private void writeJournalEntry(DataOutputStream out, RegionChange change) throws IOException {
+        KeepRegion region = change.getRegion();
+        out.writeByte(change.getType() == RegionChange.Type.REMOVE ? OP_REMOVE : OP_UPSERT);
+        out.writeLong(region.getId().getMostSignificantBits());
+        out.writeLong(region.getId().getLeastSignificantBits());
+        if (change.getType() == RegionChange.Type.REMOVE) {
+            return;
+        }
+        out.writeUTF(region.getWorldName());
+        UUID worldUuid = region.getWorldUuid();
+        out.writeLong(worldUuid == null ? 0L : worldUuid.getMostSignificantBits());
+        out.writeLong(worldUuid == null ? 0L : worldUuid.getLeastSignificantBits());
+        out.writeInt(region.getCenterX());
+        out.writeInt(region.getCenterZ());
+        out.writeInt(region.getRadius());
+        out.writeBoolean(region.getCreatedBy() != null);
+        if (region.getCreatedBy() != null) {
+            out.writeUTF(region.getCreatedBy());
+        }
+        out.writeLong(region.getCreatedAt() == null ? NO_TIME : region.getCreatedAt().toEpochMilli());
+        out.writeInt(region.getPriority());
+        out.writeBoolean(!region.getPolicy().isAlways());
+        if (!region.getPolicy().isAlways()) {
+            out.writeUTF(region.getPolicy().toSpec());
+        }
+        UUID createdById = region.getCreatedById();
+        out.writeLong(createdById == null ? 0L : createdById.getMostSignificantBits());
+        out.writeLong(createdById == null ? 0L : createdById.getLeastSignificantBits());
+        out.writeByte(region.getTicketMode().ordinal());
+        RegionShape shape = region.getShape();
+        out.writeByte(shape.getType().ordinal());
+        int[] points = shape.getPoints();
+        out.writeInt(points.length);
+        for (int point : points) {
+            out.writeInt(point);
+        }
+        long[] mask = shape.getMask();
+        out.writeInt(mask.length);
+        for (long bits : mask) {
+            out.writeLong(bits);
+        }
+    }
+
+    private Path preserve(Path file) {
+        Path copy = file.resolveSibling(file.getFileName() + ".corrupt");
+        if (Files.exists(copy)) {
+            copy = file.resolveSibling(file.getFileName() + ".corrupt-" + System.currentTimeMillis());
+        }
+        try {
+            Files.copy(file, copy);
+        } catch (IOException ex) {
+            logger.log(Level.SEVERE, "Failed to copy " + file.getFileName() + " to " + copy.getFileName(), ex);
+        }
+        return copy;
+    }
+
+    private static UUID readUuid(long most, long least) {
+        return most == 0L && least == 0L ? null : new UUID(most, least);
+    }
+
+    private static RegionShape readShape(ByteBuffer buffer) {
+        RegionShape.Type type = RegionShape.Type.values()[Byte.toUnsignedInt(buffer.get())];
+        int[] points = new int[buffer.getInt()];
+        buffer.asIntBuffer().get(points);
+        buffer.position(buffer.position() + points.length * 4);
+        long[] mask = new long[buffer.getInt()];
+        buffer.asLongBuffer().get(mask);
+        buffer.position(buffer.position() + mask.length * 8);
+        return RegionShape.of(type, points, mask);
+    }
+
+    private static void writeShape(ByteBuffer buffer, RegionShape shape) {
+        buffer.put((byte) shape.getType().ordinal());
+        int[] points = shape.getPoints();
+        buffer.putInt(points.length);
+        for (int point : points) {
+            buffer.putInt(point);
+        }
+        long[] mask = shape.getMask();
+        buffer.putInt(mask.length);
+        for (long bits : mask) {
+            buffer.putLong(bits);
+        }
+    }
+
+    private static int shapeSize(RegionShape shape) {
+        return 1 + 4 + shape.getPoints().length * 4 + 4 + shape.getMask().length * 8;
+    }
+
+    private static int intern(String value, Map<String, Integer> ids, List<byte[]> strings) {
+        if (ids.containsKey(value)) {
+            return 0;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("String too long for region data: " + value.length());
+        }
+        ids.put(value, strings.size());
+        strings.add(bytes);
+        return 2 + bytes.length;
+    }
+
+    private void ensureFolder() {
+        File folder = dataFile.toFile().getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            logger.warning("Failed to create plugin data folder");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class ChunkBitmap {
+    private static final int TILE_SHIFT = 6;
+    private static final int TILE_MASK = (1 << TILE_SHIFT) - 1;
+    private static final int ARRAY_LIMIT = 256;
+
+    private final Map<Long, Container> tiles = new HashMap<>();
+    private long cardinality;
+
+    public boolean add(int chunkX, int chunkZ) {
+        Container container = tiles.computeIfAbsent(ChunkKey.of(chunkX >> TILE_SHIFT, chunkZ >> TILE_SHIFT),
+                key -> new Container());
+        if (!container.add(offset(chunkX, chunkZ))) {
+            return false;
+        }
+        cardinality++;
+        return true;
+    }
+
+    public void addAll(KeepRegion region) {
+        for (long key : region.chunkKeys()) {
+            add(ChunkKey.x(key), ChunkKey.z(key));
+        }
+    }
+
+    public boolean contains(int chunkX, int chunkZ) {
+        Container container = tiles.get(ChunkKey.of(chunkX >> TILE_SHIFT, chunkZ >> TILE_SHIFT));
+        return container != null && container.contains(offset(chunkX, chunkZ));
+    }
+
+    public long cardinality() {
+        return cardinality;
+    }
+
+    public int tiles() {
+        return tiles.size();
+    }
+
+    private static int offset(int chunkX, int chunkZ) {
+        return (chunkZ & TILE_MASK) << TILE_SHIFT | (chunkX & TILE_MASK);
+    }
+
+    private static final class Container {
+        private short[] values = new short[4];
+        private int size;
+        private long[] bits;
+
+        private boolean add(int offset) {
+            if (bits != null) {
+                long mask = 1L << offset;
+                if ((bits[offset >>> 6] & mask) != 0L) {
+                    return false;
+                }
+                bits[offset >>> 6] |= mask;
+                return true;
+            }
+            int position = Arrays.binarySearch(values, 0, size, (short) offset);
+            if (position >= 0) {
+                return false;
+            }
+            if (size == ARRAY_LIMIT) {
+                toBitmap();
+                return add(offset);
+            }
+            int insert = -position - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, size * 2));
+            }
+            System.arraycopy(values, insert, values, insert + 1, size - insert);
+            values[insert] = (short) offset;
+            size++;
+            return true;
+        }
+
+        private boolean contains(int offset) {
+            if (bits != null) {
+                return (bits[offset >>> 6] & (1L << offset)) != 0L;
+            }
+            return Arrays.binarySearch(values, 0, size, (short) offset) >= 0;
+        }
+
+        private void toBitmap() {
+            bits = new long[(1 << (TILE_SHIFT * 2)) >>> 6];
+            for (int i = 0; i < size; i++) {
+                bits[values[i] >>> 6] |= 1L << values[i];
+            }
+            values = null;
+            size = 0;
+        }
+    }
+}
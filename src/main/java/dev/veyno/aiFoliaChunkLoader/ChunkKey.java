@@ -0,0 +1,18 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+public final class ChunkKey {
+    private ChunkKey() {
+    }
+
+    public static long of(int chunkX, int chunkZ) {
+        return ((long) chunkX & 0xFFFFFFFFL) | (((long) chunkZ & 0xFFFFFFFFL) << 32);
+    }
+
+    public static int x(long key) {
+        return (int) key;
+    }
+
+    public static int z(long key) {
+        return (int) (key >>> 32);
+    }
+}
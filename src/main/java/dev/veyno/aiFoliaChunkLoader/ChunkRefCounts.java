@@ -0,0 +1,120 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+public final class ChunkRefCounts {
+    private static final int MIN_CAPACITY = 64;
+
+    private long[] keys = new long[MIN_CAPACITY];
+    private int[] counts = new int[MIN_CAPACITY];
+    private int size;
+
+    public synchronized int get(long key) {
+        int slot = find(key);
+        return slot < 0 ? 0 : counts[slot];
+    }
+
+    public synchronized int increment(long key) {
+        int slot = find(key);
+        if (slot >= 0) {
+            return ++counts[slot];
+        }
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+        slot = insertSlot(key);
+        keys[slot] = key;
+        counts[slot] = 1;
+        size++;
+        return 1;
+    }
+
+    public synchronized int decrement(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return -1;
+        }
+        int remaining = --counts[slot];
+        if (remaining == 0) {
+            delete(slot);
+        }
+        return remaining;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long[] keys() {
+        long[] result = new long[size];
+        int index = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (counts[slot] != 0) {
+                result[index++] = keys[slot];
+            }
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        keys = new long[MIN_CAPACITY];
+        counts = new int[MIN_CAPACITY];
+        size = 0;
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (counts[slot] != 0) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int insertSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (counts[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (counts[next] != 0) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                counts[hole] = counts[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0L;
+        counts[hole] = 0;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new long[capacity];
+        counts = new int[capacity];
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldCounts[slot] != 0) {
+                int target = insertSlot(oldKeys[slot]);
+                keys[target] = oldKeys[slot];
+                counts[target] = oldCounts[slot];
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -0,0 +1,37 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class ChunkSections {
+    private ChunkSections() {
+    }
+
+    public static List<long[]> split(long[] chunkKeys, int shift) {
+        Map<Long, Batch> sections = new HashMap<>();
+        for (long key : chunkKeys) {
+            long section = ChunkKey.of(ChunkKey.x(key) >> shift, ChunkKey.z(key) >> shift);
+            sections.computeIfAbsent(section, ignored -> new Batch()).add(key);
+        }
+        List<long[]> result = new ArrayList<>(sections.size());
+        for (Batch batch : sections.values()) {
+            result.add(Arrays.copyOf(batch.keys, batch.size));
+        }
+        return result;
+    }
+
+    private static final class Batch {
+        private long[] keys = new long[16];
+        private int size;
+
+        private void add(long key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            keys[size++] = key;
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package dev.veyno.aiFoliaChunkLoader;
 
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.UUID;
 
 public final class KeepRegion {
+    private static final int BORDER_RINGS = 2;
+
     private final UUID id;
     private final String worldName;
     private final UUID worldUuid;
@@ -13,16 +16,44 @@ public final class KeepRegion {
     private final int radius;
     private final String createdBy;
     private final Instant createdAt;
+    private final int priority;
+    private final RegionShape shape;
+    private final ActivationPolicy policy;
+    private final UUID createdById;
+    private final TicketMode ticketMode;
+    private int chunkCount = -1;
+    private volatile int[] levelCounts;
+    private String shortId;
 
     public KeepRegion(UUID id, String worldName, UUID worldUuid, int centerX, int centerZ, int radius, String createdBy, Instant createdAt) {
-        this.id = Objects.requireNonNull(id, "id");
-        this.worldName = Objects.requireNonNull(worldName, "worldName");
-        this.worldUuid = worldUuid;
-        this.centerX = centerX;
-        this.centerZ = centerZ;
-        this.radius = radius;
-        this.createdBy = createdBy;
-        this.createdAt = createdAt;
+        this(builder(id, worldName, centerX, centerZ).worldUuid(worldUuid).radius(radius).createdBy(createdBy)
+                .createdAt(createdAt));
+    }
+
+    private KeepRegion(Builder builder) {
+        this.id = Objects.requireNonNull(builder.id, "id");
+        this.worldName = Objects.requireNonNull(builder.worldName, "worldName");
+        this.worldUuid = builder.worldUuid;
+        this.centerX = builder.centerX;
+        this.centerZ = builder.centerZ;
+        this.radius = builder.radius;
+        this.createdBy = builder.createdBy;
+        this.createdAt = builder.createdAt;
+        this.priority = builder.priority;
+        this.shape = Objects.requireNonNull(builder.shape, "shape");
+        this.policy = Objects.requireNonNull(builder.policy, "policy");
+        this.createdById = builder.createdById;
+        this.ticketMode = Objects.requireNonNull(builder.ticketMode, "ticketMode");
+    }
+
+    public static Builder builder(UUID id, String worldName, int centerX, int centerZ) {
+        return new Builder(id, worldName, centerX, centerZ);
+    }
+
+    public Builder toBuilder() {
+        return new Builder(id, worldName, centerX, centerZ).worldUuid(worldUuid).radius(radius).createdBy(createdBy)
+                .createdById(createdById).createdAt(createdAt).priority(priority).shape(shape).policy(policy)
+                .ticketMode(ticketMode);
     }
 
     public UUID getId() {
@@ -53,10 +84,138 @@ public final class KeepRegion {
         return createdBy;
     }
 
+    public UUID getCreatedById() {
+        return createdById;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
 
+    public int getPriority() {
+        return priority;
+    }
+
+    public RegionShape getShape() {
+        return shape;
+    }
+
+    public ActivationPolicy getPolicy() {
+        return policy;
+    }
+
+    public TicketMode getTicketMode() {
+        return ticketMode;
+    }
+
+    public boolean contains(int chunkX, int chunkZ) {
+        return shape.contains(chunkX - centerX, chunkZ - centerZ, radius);
+    }
+
+    public int chunkCount() {
+        int count = chunkCount;
+        if (count < 0) {
+            if (shape.getType() == RegionShape.Type.SQUARE) {
+                int side = radius * 2 + 1;
+                count = side * side;
+            } else {
+                count = 0;
+                for (int dx = -radius; dx <= radius; dx++) {
+                    for (int dz = -radius; dz <= radius; dz++) {
+                        if (shape.contains(dx, dz, radius)) {
+                            count++;
+                        }
+                    }
+                }
+            }
+            chunkCount = count;
+        }
+        return count;
+    }
+
+    public int nominalChunkCount() {
+        int side = radius * 2 + 1;
+        return side * side;
+    }
+
+    public long[] chunkKeys() {
+        long[] keys = new long[chunkCount()];
+        int index = put(keys, 0, centerX, centerZ);
+        for (int ring = 1; ring <= radius; ring++) {
+            for (int offset = -ring; offset <= ring; offset++) {
+                index = put(keys, index, centerX + offset, centerZ - ring);
+                index = put(keys, index, centerX + offset, centerZ + ring);
+            }
+            for (int offset = -ring + 1; offset <= ring - 1; offset++) {
+                index = put(keys, index, centerX - ring, centerZ + offset);
+                index = put(keys, index, centerX + ring, centerZ + offset);
+            }
+        }
+        return keys;
+    }
+
+    public long[] ticketKeys() {
+        long[] keys = chunkKeys();
+        if (ticketMode == TicketMode.FULL) {
+            return keys;
+        }
+        ChunkBitmap tickets = new ChunkBitmap();
+        long[] result = new long[keys.length];
+        int size = 0;
+        for (long key : keys) {
+            if (isInterior(ChunkKey.x(key), ChunkKey.z(key))) {
+                tickets.add(ChunkKey.x(key), ChunkKey.z(key));
+                result[size++] = key;
+            }
+        }
+        for (long key : keys) {
+            if (ticketDistance(tickets, ChunkKey.x(key), ChunkKey.z(key)) > BORDER_RINGS) {
+                tickets.add(ChunkKey.x(key), ChunkKey.z(key));
+                result[size++] = key;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    public int[] levelCounts() {
+        int[] counts = levelCounts;
+        if (counts == null) {
+            counts = new int[BORDER_RINGS + 1];
+            if (ticketMode == TicketMode.FULL) {
+                counts[0] = chunkCount();
+            } else {
+                ChunkBitmap tickets = new ChunkBitmap();
+                for (long key : ticketKeys()) {
+                    tickets.add(ChunkKey.x(key), ChunkKey.z(key));
+                }
+                for (long key : chunkKeys()) {
+                    counts[ticketDistance(tickets, ChunkKey.x(key), ChunkKey.z(key))]++;
+                }
+            }
+            levelCounts = counts;
+        }
+        return counts.clone();
+    }
+
+    public KeepRegion withPriority(int priority) {
+        return toBuilder().priority(priority).build();
+    }
+
+    public KeepRegion withRadius(int radius) {
+        if (shape.getType() != RegionShape.Type.SQUARE && shape.getType() != RegionShape.Type.CIRCLE) {
+            throw new IllegalArgumentException("Only square and circle regions can be resized, not " + shape.describe());
+        }
+        return toBuilder().radius(radius).build();
+    }
+
+    public KeepRegion withPolicy(ActivationPolicy policy) {
+        return toBuilder().policy(policy).build();
+    }
+
+    public KeepRegion withTicketMode(TicketMode ticketMode) {
+        return toBuilder().ticketMode(ticketMode).build();
+    }
+
     public boolean sameKey(KeepRegion other) {
         if (other == null) {
             return false;
@@ -68,11 +227,119 @@ public final class KeepRegion {
         } else if (!worldName.equalsIgnoreCase(other.worldName)) {
             return false;
         }
-        return centerX == other.centerX && centerZ == other.centerZ && radius == other.radius;
+        return centerX == other.centerX && centerZ == other.centerZ && radius == other.radius && shape.equals(other.shape);
     }
 
     public String shortId() {
-        String value = id.toString();
-        return value.substring(0, Math.min(8, value.length()));
+        String value = shortId;
+        if (value == null) {
+            value = id.toString().substring(0, 8);
+            shortId = value;
+        }
+        return value;
+    }
+
+    private boolean isInterior(int chunkX, int chunkZ) {
+        for (int dx = -BORDER_RINGS; dx <= BORDER_RINGS; dx++) {
+            for (int dz = -BORDER_RINGS; dz <= BORDER_RINGS; dz++) {
+                if (!contains(chunkX + dx, chunkZ + dz)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int ticketDistance(ChunkBitmap tickets, int chunkX, int chunkZ) {
+        for (int distance = 0; distance <= BORDER_RINGS; distance++) {
+            for (int dx = -distance; dx <= distance; dx++) {
+                for (int dz = -distance; dz <= distance; dz++) {
+                    if ((Math.abs(dx) == distance || Math.abs(dz) == distance) && tickets.contains(chunkX + dx, chunkZ + dz)) {
+                        return distance;
+                    }
+                }
+            }
+        }
+        return BORDER_RINGS + 1;
+    }
+
+    private int put(long[] keys, int index, int chunkX, int chunkZ) {
+        if (!contains(chunkX, chunkZ)) {
+            return index;
+        }
+        keys[index] = ChunkKey.of(chunkX, chunkZ);
+        return index + 1;
+    }
+
+    public static final class Builder {
+        private final UUID id;
+        private final String worldName;
+        private final int centerX;
+        private final int centerZ;
+        private UUID worldUuid;
+        private int radius;
+        private String createdBy;
+        private UUID createdById;
+        private Instant createdAt;
+        private int priority;
+        private RegionShape shape = RegionShape.SQUARE;
+        private ActivationPolicy policy = ActivationPolicy.ALWAYS;
+        private TicketMode ticketMode = TicketMode.FULL;
+
+        private Builder(UUID id, String worldName, int centerX, int centerZ) {
+            this.id = id;
+            this.worldName = worldName;
+            this.centerX = centerX;
+            this.centerZ = centerZ;
+        }
+
+        public Builder worldUuid(UUID worldUuid) {
+            this.worldUuid = worldUuid;
+            return this;
+        }
+
+        public Builder radius(int radius) {
+            this.radius = radius;
+            return this;
+        }
+
+        public Builder createdBy(String createdBy) {
+            this.createdBy = createdBy;
+            return this;
+        }
+
+        public Builder createdById(UUID createdById) {
+            this.createdById = createdById;
+            return this;
+        }
+
+        public Builder createdAt(Instant createdAt) {
+            this.createdAt = createdAt;
+            return this;
+        }
+
+        public Builder priority(int priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        public Builder shape(RegionShape shape) {
+            this.shape = shape;
+            return this;
+        }
+
+        public Builder policy(ActivationPolicy policy) {
+            this.policy = policy;
+            return this;
+        }
+
+        public Builder ticketMode(TicketMode ticketMode) {
+            this.ticketMode = ticketMode;
+            return this;
+        }
+
+        public KeepRegion build() {
+            return new KeepRegion(this);
+        }
     }
 }
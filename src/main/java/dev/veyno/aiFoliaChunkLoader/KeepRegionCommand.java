@@ -1,5 +1,9 @@
 package dev.veyno.aiFoliaChunkLoader;
 
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.World;
 import org.bukkit.command.Command;
@@ -8,11 +12,16 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.*;
+import java.util.logging.Level;
 
 public final class KeepRegionCommand implements CommandExecutor, TabCompleter {
     private static final String PREFIX = ChatColor.AQUA + "[KeepRegion] " + ChatColor.GRAY;
+    private static final int STATS_LIMIT = 10;
+    private static final int TAB_COMPLETE_LIMIT = 20;
 
     private final AiFoliaChunkLoader plugin;
     private final RegionManager manager;
@@ -39,8 +48,14 @@ public final class KeepRegionCommand implements CommandExecutor, TabCompleter {
         String sub = args[0].toLowerCase(Locale.ROOT);
         switch (sub) {
             case "create" -> handleCreate(player, args);
-            case "list" -> handleList(player);
+            case "list" -> handleList(player, args);
             case "remove" -> handleRemove(player, args);
+            case "priority" -> handlePriority(player, args);
+            case "stats" -> handleStats(player, args);
+            case "policy" -> handlePolicy(player, args);
+            case "mode" -> handleMode(player, args);
+            case "optimize" -> handleOptimize(player, args);
+            case "bulk" -> handleBulk(player, args);
             default -> sendUsage(player);
         }
         return true;
@@ -48,14 +63,76 @@ public final class KeepRegionCommand implements CommandExecutor, TabCompleter {
 
     private void handleCreate(Player player, String[] args) {
         if (args.length < 2) {
-            player.sendMessage(PREFIX + "Usage: /keepregion create <radius>");
+            sendCreateUsage(player);
             return;
         }
+        int playerChunkX = Math.floorDiv(player.getLocation().getBlockX(), 16);
+        int playerChunkZ = Math.floorDiv(player.getLocation().getBlockZ(), 16);
+        String type = args[1].toLowerCase(Locale.ROOT);
+        int centerX;
+        int centerZ;
         int radius;
+        RegionShape shape;
         try {
-            radius = Integer.parseInt(args[1]);
+            switch (type) {
+                case "circle" -> {
+                    if (args.length < 3) {
+                        sendCreateUsage(player);
+                        return;
+                    }
+                    centerX = playerChunkX;
+                    centerZ = playerChunkZ;
+                    radius = Integer.parseInt(args[2]);
+                    shape = RegionShape.CIRCLE;
+                }
+                case "rect", "polygon", "chunks" -> {
+                    int[] coordinates = parseCoordinates(args, 2);
+                    int minimum = "rect".equals(type) ? 4 : "polygon".equals(type) ? 6 : 2;
+                    if (coordinates.length < minimum || ("rect".equals(type) && coordinates.length != 4)) {
+                        sendCreateUsage(player);
+                        return;
+                    }
+                    int minX = Integer.MAX_VALUE;
+                    int minZ = Integer.MAX_VALUE;
+                    int maxX = Integer.MIN_VALUE;
+                    int maxZ = Integer.MIN_VALUE;
+                    for (int i = 0; i < coordinates.length; i += 2) {
+                        minX = Math.min(minX, coordinates[i]);
+                        maxX = Math.max(maxX, coordinates[i]);
+                        minZ = Math.min(minZ, coordinates[i + 1]);
+                        maxZ = Math.max(maxZ, coordinates[i + 1]);
+                    }
+                    centerX = Math.floorDiv(minX + maxX, 2);
+                    centerZ = Math.floorDiv(minZ + maxZ, 2);
+                    radius = Math.max(Math.max(maxX - centerX, centerX - minX), Math.max(maxZ - centerZ, centerZ - minZ));
+                    shape = switch (type) {
+                        case "rect" -> RegionShape.rect(minX - centerX, minZ - centerZ, maxX - centerX, maxZ - centerZ);
+                        case "polygon" -> {
+                            int[] vertices = new int[coordinates.length];
+                            for (int i = 0; i < coordinates.length; i += 2) {
+                                vertices[i] = coordinates[i] - centerX;
+                                vertices[i + 1] = coordinates[i + 1] - centerZ;
+                            }
+                            yield RegionShape.polygon(vertices);
+                        }
+                        default -> {
+                            long[] keys = new long[coordinates.length / 2];
+                            for (int i = 0; i < keys.length; i++) {
+                                keys[i] = ChunkKey.of(coordinates[i * 2], coordinates[i * 2 + 1]);
+                            }
+                            yield RegionShape.maskOf(keys, centerX, centerZ, radius);
+                        }
+                    };
+                }
+                default -> {
+                    centerX = playerChunkX;
+                    centerZ = playerChunkZ;
+                    radius = Integer.parseInt(args[1]);
+                    shape = RegionShape.SQUARE;
+                }
+            }
         } catch (NumberFormatException ex) {
-            player.sendMessage(PREFIX + "Radius muss eine ganze Zahl sein.");
+            player.sendMessage(PREFIX + "Radius und Koordinaten müssen ganze Zahlen sein.");
             return;
         }
         int maxRadius = plugin.getConfig().getInt("limits.max-radius", 16);
@@ -65,55 +142,169 @@ public final class KeepRegionCommand implements CommandExecutor, TabCompleter {
             player.sendMessage(PREFIX + "Radius muss zwischen 0 und " + allowedMax + " liegen.");
             return;
         }
-        int maxRegions = plugin.getConfig().getInt("limits.max-regions-total", 0);
-        if (maxRegions > 0 && manager.totalRegions() >= maxRegions && !player.hasPermission("keepregion.admin")) {
-            player.sendMessage(PREFIX + "Maximale Anzahl an Regionen erreicht.");
-            return;
-        }
-        int centerX = Math.floorDiv(player.getLocation().getBlockX(), 16);
-        int centerZ = Math.floorDiv(player.getLocation().getBlockZ(), 16);
         World world = player.getWorld();
-        KeepRegion region = new KeepRegion(UUID.randomUUID(), world.getName(), world.getUID(), centerX, centerZ, radius,
-                player.getName(), Instant.now());
-        if (manager.hasRegion(region)) {
-            player.sendMessage(PREFIX + "Diese Region existiert bereits.");
+        KeepRegion region = KeepRegion.builder(UUID.randomUUID(), world.getName(), centerX, centerZ)
+                .worldUuid(world.getUID()).radius(radius).createdBy(player.getName())
+                .createdById(player.getUniqueId()).createdAt(Instant.now()).shape(shape).build();
+        if (region.chunkCount() == 0) {
+            player.sendMessage(PREFIX + "Diese Form enthält keine Chunks.");
             return;
         }
-        manager.addRegion(region);
-        player.sendMessage(PREFIX + "Region erstellt: center=(" + centerX + "," + centerZ + ") r=" + radius
-                + " chunks=" + chunkCount(radius));
+        RegionQuotas.Limits limits = manager.getQuotas().limitsFor(player);
+        RegionQuotas.Result result = manager.addRegion(region, limits);
+        switch (result) {
+            case OK -> {
+                String quota = limits.isBypass() || limits.getMaxChunks() <= 0L ? ""
+                        : " (Kontingent: " + manager.getQuotas().usedChunks(limits) + "/" + limits.getMaxChunks() + ")";
+                player.sendMessage(PREFIX + "Region erstellt: center=(" + centerX + "," + centerZ + ") r=" + radius
+                        + " form=" + shape.describe() + " chunks=" + region.chunkCount() + quota);
+            }
+            case DUPLICATE -> player.sendMessage(PREFIX + "Diese Region existiert bereits.");
+            case PLAYER_REGIONS -> player.sendMessage(PREFIX + "Du hast die maximale Anzahl an Regionen erreicht.");
+            case PLAYER_CHUNKS -> player.sendMessage(PREFIX + "Chunk-Kontingent überschritten: "
+                    + manager.getQuotas().usedChunks(limits) + "/" + limits.getMaxChunks() + " belegt, Region benötigt "
+                    + region.chunkCount() + ".");
+            case WORLD_CHUNKS -> player.sendMessage(PREFIX + "Das Chunk-Limit dieser Welt ist erreicht.");
+            case TOTAL_CHUNKS -> player.sendMessage(PREFIX + "Das globale Chunk-Limit ist erreicht.");
+            case TOTAL_REGIONS -> player.sendMessage(PREFIX + "Maximale Anzahl an Regionen erreicht.");
+        }
     }
 
-    private void handleList(Player player) {
-        List<KeepRegion> regions = manager.getRegions();
-        if (regions.isEmpty()) {
-            player.sendMessage(PREFIX + "Keine Regionen gespeichert.");
+    private int[] parseCoordinates(String[] args, int from) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = from; i < args.length; i++) {
+            for (String part : args[i].split(",")) {
+                if (!part.isEmpty()) {
+                    values.add(Integer.parseInt(part));
+                }
+            }
+        }
+        if (values.size() % 2 != 0) {
+            throw new NumberFormatException("odd coordinate count");
+        }
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    private void sendCreateUsage(Player player) {
+        player.sendMessage(PREFIX + "Usage: /keepregion create <radius> | circle <radius> | rect <x1> <z1> <x2> <z2>"
+                + " | polygon <x,z> <x,z> <x,z>... | chunks <x,z>...");
+    }
+
+    private void handleList(Player player, String[] args) {
+        RegionListQuery query;
+        try {
+            query = RegionListQuery.parse(args, 1);
+        } catch (IllegalArgumentException ex) {
+            player.sendMessage(PREFIX + "Usage: /keepregion list [seite] [world:<welt>] [by:<spieler>] [near:<chunks>]"
+                    + " [r:<min>-<max>] [sort:distance|size|age]");
             return;
         }
-        player.sendMessage(PREFIX + "Gespeicherte Regionen (nach Welt gruppiert):");
-        World playerWorld = player.getWorld();
-        int playerChunkX = Math.floorDiv(player.getLocation().getBlockX(), 16);
-        int playerChunkZ = Math.floorDiv(player.getLocation().getBlockZ(), 16);
-        var grouped = new java.util.LinkedHashMap<String, List<KeepRegion>>();
-        for (KeepRegion region : regions) {
-            grouped.computeIfAbsent(region.getWorldName(), key -> new ArrayList<>()).add(region);
-        }
-        for (var entry : grouped.entrySet()) {
-            player.sendMessage(ChatColor.DARK_AQUA + "Welt: " + entry.getKey());
-            for (KeepRegion region : entry.getValue()) {
-                StringBuilder line = new StringBuilder();
-                line.append(ChatColor.YELLOW).append(region.shortId())
-                        .append(ChatColor.GRAY).append(" center=(").append(region.getCenterX()).append(",")
-                        .append(region.getCenterZ()).append(")")
-                        .append(" r=").append(region.getRadius())
-                        .append(" chunks=").append(chunkCount(region.getRadius()));
-                if (playerWorld.getName().equalsIgnoreCase(region.getWorldName())) {
-                    int dist = Math.max(Math.abs(playerChunkX - region.getCenterX()), Math.abs(playerChunkZ - region.getCenterZ()));
-                    line.append(" dist=").append(dist).append(" chunks");
+        List<KeepRegion> regions = manager.getRegions();
+        String viewerWorld = player.getWorld().getName();
+        int viewerX = Math.floorDiv(player.getLocation().getBlockX(), 16);
+        int viewerZ = Math.floorDiv(player.getLocation().getBlockZ(), 16);
+        int pageSize = Math.max(1, plugin.getConfig().getInt("list.page-size", 10));
+        Bukkit.getAsyncScheduler().runNow(plugin, task -> {
+            List<Object> lines = buildList(query, regions, viewerWorld, viewerX, viewerZ, pageSize);
+            player.getScheduler().run(plugin, scheduled -> {
+                for (Object line : lines) {
+                    if (line instanceof Component component) {
+                        player.sendMessage(component);
+                    } else {
+                        player.sendMessage(line.toString());
+                    }
                 }
-                player.sendMessage(line.toString());
+            }, null);
+        });
+    }
+
+    private List<Object> buildList(RegionListQuery query, List<KeepRegion> regions, String viewerWorld, int viewerX,
+                                   int viewerZ, int pageSize) {
+        List<Object> lines = new ArrayList<>();
+        if (regions.isEmpty()) {
+            lines.add(PREFIX + "Keine Regionen gespeichert.");
+            return lines;
+        }
+        RegionListQuery.Result result = query.run(regions, viewerWorld, viewerX, viewerZ, pageSize);
+        if (result.getMatches() == 0) {
+            lines.add(PREFIX + "Keine Regionen für diesen Filter gefunden.");
+            return lines;
+        }
+        lines.add(PREFIX + "Regionen: " + result.getMatches() + " Treffer, Seite " + result.getPage() + "/" + result.getPages());
+        if (!manager.isReady()) {
+            lines.add(PREFIX + "Warm-up: " + manager.warmupProgress());
+        }
+        Map<String, RegionCoverage.Summary> coverage = manager.coverage();
+        String currentWorld = null;
+        for (KeepRegion region : result.getEntries()) {
+            if (!region.getWorldName().equalsIgnoreCase(currentWorld)) {
+                currentWorld = region.getWorldName();
+                RegionCoverage.Summary summary = coverage.get(currentWorld.toLowerCase(Locale.ROOT));
+                lines.add(ChatColor.DARK_AQUA + "Welt: " + currentWorld + (summary == null ? ""
+                        : ChatColor.GRAY + " (" + summary.getRealChunks() + " Chunks belegt, nominal "
+                        + summary.getNominalChunks() + ")"));
             }
+            lines.add(describe(region, viewerWorld, viewerX, viewerZ));
+        }
+        if (result.getPages() > 1) {
+            lines.add(navigation(query, result));
         }
+        return lines;
+    }
+
+    private String describe(KeepRegion region, String viewerWorld, int viewerX, int viewerZ) {
+        StringBuilder line = new StringBuilder();
+        line.append(ChatColor.YELLOW).append(region.shortId())
+                .append(ChatColor.GRAY).append(" center=(").append(region.getCenterX()).append(",")
+                .append(region.getCenterZ()).append(")")
+                .append(" r=").append(region.getRadius());
+        if (region.getShape().getType() != RegionShape.Type.SQUARE) {
+            line.append(" form=").append(region.getShape().describe());
+        }
+        line.append(" chunks=").append(region.chunkCount());
+        if (region.getPriority() != 0) {
+            line.append(" prio=").append(region.getPriority());
+        }
+        if (region.getTicketMode() != TicketMode.FULL) {
+            int[] levels = region.levelCounts();
+            line.append(" mode=").append(region.getTicketMode().id())
+                    .append(" (voll=").append(levels[0])
+                    .append(" block=").append(levels[1])
+                    .append(" geladen=").append(levels[2]).append(")");
+        }
+        if (!region.getPolicy().isAlways()) {
+            line.append(" policy=").append(region.getPolicy().toSpec())
+                    .append(manager.isActive(region) ? " (aktiv)" : " (inaktiv)");
+        }
+        if (manager.isShed(region)) {
+            line.append(ChatColor.RED).append(" gedrosselt").append(ChatColor.GRAY);
+        }
+        if (viewerWorld.equalsIgnoreCase(region.getWorldName())) {
+            line.append(" dist=").append(RegionIndex.distance(region, viewerX, viewerZ)).append(" chunks");
+        }
+        return line.toString();
+    }
+
+    private Component navigation(RegionListQuery query, RegionListQuery.Result result) {
+        Component line = Component.text("", NamedTextColor.GRAY);
+        if (result.getPage() > 1) {
+            line = line.append(Component.text("« Zurück", NamedTextColor.AQUA)
+                    .clickEvent(ClickEvent.runCommand("/keepregion list " + query.toArgs(result.getPage() - 1))));
+        } else {
+            line = line.append(Component.text("« Zurück", NamedTextColor.DARK_GRAY));
+        }
+        line = line.append(Component.text("  Seite " + result.getPage() + "/" + result.getPages() + "  ", NamedTextColor.GRAY));
+        if (result.getPage() < result.getPages()) {
+            line = line.append(Component.text("Weiter »", NamedTextColor.AQUA)
+                    .clickEvent(ClickEvent.runCommand("/keepregion list " + query.toArgs(result.getPage() + 1))));
+        } else {
+            line = line.append(Component.text("Weiter »", NamedTextColor.DARK_GRAY));
+        }
+        return line;
     }
 
     private void handleRemove(Player player, String[] args) {
@@ -144,26 +335,362 @@ public final class KeepRegionCommand implements CommandExecutor, TabCompleter {
         player.sendMessage(PREFIX + removed.size() + " Regionen mit diesem Mittelpunkt entfernt.");
     }
 
-    private void sendUsage(Player player) {
-        player.sendMessage(PREFIX + "Usage: /keepregion <create|list|remove>");
+    private void handlePriority(Player player, String[] args) {
+        if (!player.hasPermission("keepregion.admin")) {
+            player.sendMessage(PREFIX + "Keine Berechtigung.");
+            return;
+        }
+        if (args.length < 3) {
+            player.sendMessage(PREFIX + "Usage: /keepregion priority <id> <wert>");
+            return;
+        }
+        int priority;
+        try {
+            priority = Integer.parseInt(args[2]);
+        } catch (NumberFormatException ex) {
+            player.sendMessage(PREFIX + "Priorität muss eine ganze Zahl sein.");
+            return;
+        }
+        Optional<KeepRegion> found = manager.findById(args[1]);
+        if (found.isEmpty()) {
+            player.sendMessage(PREFIX + "Keine eindeutige Region mit dieser ID gefunden.");
+            return;
+        }
+        KeepRegion region = found.get();
+        if (!manager.replaceRegion(region, region.withPriority(priority))) {
+            player.sendMessage(PREFIX + "Region wurde zwischenzeitlich geändert.");
+            return;
+        }
+        player.sendMessage(PREFIX + "Priorität von " + region.shortId() + " auf " + priority + " gesetzt.");
     }
 
-    private int chunkCount(int radius) {
+    private void handlePolicy(Player player, String[] args) {
+        if (args.length < 3) {
+            player.sendMessage(PREFIX + "Usage: /keepregion policy <id> <always|window HH:mm-HH:mm|owner"
+                    + "|load <maxSpieler> [maxMspt]|duty <anMinuten> <ausMinuten>>");
+            return;
+        }
+        Optional<KeepRegion> found = manager.findById(args[1]);
+        if (found.isEmpty()) {
+            player.sendMessage(PREFIX + "Keine eindeutige Region mit dieser ID gefunden.");
+            return;
+        }
+        KeepRegion region = found.get();
+        if (!player.hasPermission("keepregion.admin") && !player.getName().equalsIgnoreCase(region.getCreatedBy())) {
+            player.sendMessage(PREFIX + "Keine Berechtigung.");
+            return;
+        }
+        ActivationPolicy policy;
+        try {
+            policy = ActivationPolicy.parse(String.join(" ", Arrays.copyOfRange(args, 2, args.length)));
+        } catch (IllegalArgumentException ex) {
+            player.sendMessage(PREFIX + "Ungültige Richtlinie.");
+            return;
+        }
+        if (!manager.setPolicy(region, policy)) {
+            player.sendMessage(PREFIX + "Region wurde zwischenzeitlich geändert.");
+            return;
+        }
+        player.sendMessage(PREFIX + "Richtlinie von " + region.shortId() + " auf '" + policy.toSpec() + "' gesetzt ("
+                + (manager.policyAllows(region.withPolicy(policy)) ? "aktiv" : "inaktiv") + ").");
+    }
+
+    private void handleMode(Player player, String[] args) {
+        if (!player.hasPermission("keepregion.admin")) {
+            player.sendMessage(PREFIX + "Keine Berechtigung.");
+            return;
+        }
+        if (args.length < 3) {
+            player.sendMessage(PREFIX + "Usage: /keepregion mode <id> <full|core>");
+            return;
+        }
+        TicketMode mode;
+        try {
+            mode = TicketMode.parse(args[2]);
+        } catch (IllegalArgumentException ex) {
+            player.sendMessage(PREFIX + "Modus muss 'full' oder 'core' sein.");
+            return;
+        }
+        Optional<KeepRegion> found = manager.findById(args[1]);
+        if (found.isEmpty()) {
+            player.sendMessage(PREFIX + "Keine eindeutige Region mit dieser ID gefunden.");
+            return;
+        }
+        KeepRegion region = found.get();
+        KeepRegion updated = region.withTicketMode(mode);
+        if (!manager.replaceRegion(region, updated)) {
+            player.sendMessage(PREFIX + "Region wurde zwischenzeitlich geändert.");
+            return;
+        }
+        int[] levels = updated.levelCounts();
+        player.sendMessage(PREFIX + "Modus von " + region.shortId() + " auf '" + mode.id() + "' gesetzt (voll=" + levels[0]
+                + ", block=" + levels[1] + ", geladen=" + levels[2] + ").");
+    }
+
+    private void handleOptimize(Player player, String[] args) {
+        if (!player.hasPermission("keepregion.admin")) {
+            player.sendMessage(PREFIX + "Keine Berechtigung.");
+            return;
+        }
+        boolean apply = args.length >= 2 && "apply".equalsIgnoreCase(args[1]);
+        String worldName = args.length >= 3 ? args[2] : null;
+        player.sendMessage(PREFIX + "Suche redundante Regionen...");
+        Bukkit.getAsyncScheduler().runNow(plugin, task -> {
+            List<KeepRegion> redundant = manager.redundantRegions(worldName);
+            long chunks = 0L;
+            RegionBatch batch = new RegionBatch();
+            for (KeepRegion region : redundant) {
+                chunks += region.chunkCount();
+                batch.remove(region);
+            }
+            int removed = apply ? manager.applyBatch(batch).getRemoved() : 0;
+            String message;
+            if (redundant.isEmpty()) {
+                message = PREFIX + "Keine redundanten Regionen gefunden.";
+            } else if (apply) {
+                message = PREFIX + removed + " redundante Regionen entfernt (" + chunks + " Chunks nominal eingespart).";
+            } else {
+                message = PREFIX + redundant.size() + " Regionen sind vollständig von anderen abgedeckt (" + chunks
+                        + " Chunks nominal). Entfernen mit /keepregion optimize apply" + (worldName == null ? "" : " " + worldName);
+            }
+            player.getScheduler().run(plugin, scheduled -> player.sendMessage(message), null);
+        });
+    }
+
+    private void handleBulk(Player player, String[] args) {
+        if (!player.hasPermission("keepregion.admin")) {
+            player.sendMessage(PREFIX + "Keine Berechtigung.");
+            return;
+        }
+        String action = args.length >= 2 ? args[1].toLowerCase(Locale.ROOT) : "";
+        try {
+            switch (action) {
+                case "import" -> {
+                    if (args.length < 3) {
+                        sendBulkUsage(player);
+                        return;
+                    }
+                    Path file = RegionTransfer.resolve(plugin.getDataFolder().toPath(), args[2]);
+                    int maxRadius = plugin.getConfig().getInt("limits.max-radius-admin",
+                            plugin.getConfig().getInt("limits.max-radius", 16));
+                    runBulk(player, () -> {
+                        List<KeepRegion> regions = RegionTransfer.read(file, plugin.getLogger());
+                        RegionBatch batch = new RegionBatch();
+                        int invalid = 0;
+                        for (KeepRegion region : regions) {
+                            if (isImportable(region, maxRadius)) {
+                                batch.add(region);
+                            } else {
+                                invalid++;
+                            }
+                        }
+                        if (invalid > 0) {
+                            plugin.getLogger().warning("Skipped " + invalid + " regions from " + file.getFileName()
+                                    + " that exceed the radius limit of " + maxRadius + " or have an invalid shape");
+                        }
+                        RegionBatch.Result result = manager.applyBatch(batch);
+                        return PREFIX + result.getAdded() + " Regionen importiert, " + result.getSkipped()
+                                + " Duplikate und " + invalid + " ungültige übersprungen.";
+                    });
+                }
+                case "export" -> {
+                    if (args.length < 3) {
+                        sendBulkUsage(player);
+                        return;
+                    }
+                    Path file = RegionTransfer.resolve(plugin.getDataFolder().toPath().resolve("exports"), args[2]);
+                    List<KeepRegion> regions = bulkSelection(player, args, 3);
+                    runBulk(player, () -> {
+                        RegionTransfer.write(file, regions);
+                        return PREFIX + regions.size() + " Regionen nach exports/" + file.getFileName() + " exportiert.";
+                    });
+                }
+                case "clear" -> {
+                    RegionListQuery query = RegionListQuery.parse(args, 2);
+                    if (!query.hasFilters()) {
+                        player.sendMessage(PREFIX + "Bitte mindestens einen Filter angeben, z.B. world:<welt>.");
+                        return;
+                    }
+                    List<KeepRegion> regions = bulkSelection(player, args, 2);
+                    runBulk(player, () -> {
+                        RegionBatch batch = new RegionBatch();
+                        regions.forEach(batch::remove);
+                        return PREFIX + manager.applyBatch(batch).getRemoved() + " Regionen entfernt.";
+                    });
+                }
+                case "resize" -> {
+                    if (args.length < 3) {
+                        sendBulkUsage(player);
+                        return;
+                    }
+                    String amount = args[2];
+                    int value = Integer.parseInt(amount.startsWith("+") ? amount.substring(1) : amount);
+                    boolean relative = amount.startsWith("+") || amount.startsWith("-");
+                    int maxRadius = plugin.getConfig().getInt("limits.max-radius-admin",
+                            plugin.getConfig().getInt("limits.max-radius", 16));
+                    List<KeepRegion> regions = bulkSelection(player, args, 3);
+                    runBulk(player, () -> {
+                        RegionBatch batch = new RegionBatch();
+                        int skipped = 0;
+                        for (KeepRegion region : regions) {
+                            RegionShape.Type type = region.getShape().getType();
+                            int radius = relative ? region.getRadius() + value : value;
+                            if ((type != RegionShape.Type.SQUARE && type != RegionShape.Type.CIRCLE) || radius < 0
+                                    || radius > maxRadius) {
+                                skipped++;
+                            } else if (radius != region.getRadius()) {
+                                batch.replace(region, region.withRadius(radius));
+                            }
+                        }
+                        RegionBatch.Result result = manager.applyBatch(batch);
+                        return PREFIX + result.getReplaced() + " Regionen angepasst, "
+                                + (skipped + result.getSkipped()) + " übersprungen.";
+                    });
+                }
+                default -> sendBulkUsage(player);
+            }
+        } catch (IllegalArgumentException ex) {
+            player.sendMessage(PREFIX + "Ungültige Eingabe: " + ex.getMessage());
+        }
+    }
+
+    private boolean isImportable(KeepRegion region, int maxRadius) {
+        int radius = region.getRadius();
+        if (radius < 0 || radius > maxRadius) {
+            return false;
+        }
+        RegionShape shape = region.getShape();
         int side = radius * 2 + 1;
-        return side * side;
+        boolean valid = switch (shape.getType()) {
+            case SQUARE, CIRCLE -> true;
+            case RECT -> shape.boundingRadius() <= radius;
+            case POLYGON -> shape.boundingRadius() <= radius && shape.getPoints().length / 2 <= side * side;
+            case MASK -> shape.getMask().length <= (side * side + 63) >>> 6;
+        };
+        return valid && region.chunkCount() > 0;
+    }
+
+    private List<KeepRegion> bulkSelection(Player player, String[] args, int from) {
+        RegionListQuery query = RegionListQuery.parse(args, from);
+        return query.matching(manager.getRegions(), player.getWorld().getName(),
+                Math.floorDiv(player.getLocation().getBlockX(), 16), Math.floorDiv(player.getLocation().getBlockZ(), 16));
+    }
+
+    private void runBulk(Player player, BulkTask action) {
+        player.sendMessage(PREFIX + "Bulk-Vorgang läuft...");
+        Bukkit.getAsyncScheduler().runNow(plugin, task -> {
+            String message;
+            try {
+                message = action.run();
+            } catch (IOException ex) {
+                plugin.getLogger().log(Level.WARNING, "Bulk operation failed", ex);
+                message = PREFIX + "Bulk-Vorgang fehlgeschlagen: " + ex.getMessage();
+            }
+            String result = message;
+            player.getScheduler().run(plugin, scheduled -> player.sendMessage(result), null);
+        });
+    }
+
+    private void sendBulkUsage(Player player) {
+        player.sendMessage(PREFIX + "Usage: /keepregion bulk import <datei.json|datei.csv> | export <datei> [filter]"
+                + " | clear <filter> | resize <radius|+n|-n> [filter]");
+    }
+
+    private interface BulkTask {
+        String run() throws IOException;
+    }
+
+    private void handleStats(Player player, String[] args) {
+        RegionMetrics metrics = manager.getMetrics();
+        if (args.length >= 2) {
+            Optional<KeepRegion> found = manager.findById(args[1]);
+            if (found.isEmpty()) {
+                player.sendMessage(PREFIX + "Keine eindeutige Region mit dieser ID gefunden.");
+                return;
+            }
+            KeepRegion region = found.get();
+            RegionMetrics.Snapshot snapshot = metrics.snapshot(region);
+            player.sendMessage(PREFIX + "Statistik für " + region.shortId() + " (" + region.getWorldName() + "):");
+            player.sendMessage(ChatColor.GRAY + "chunks=" + region.chunkCount()
+                    + " ticketed=" + manager.ticketedChunks(region)
+                    + " loaded=" + snapshot.getLoadedChunks());
+            player.sendMessage(ChatColor.GRAY + "entities=" + snapshot.getEntities()
+                    + " tileEntities=" + snapshot.getTileEntities()
+                    + (snapshot.getSample() == null ? " (noch keine Messung)" : ""));
+            player.sendMessage(ChatColor.GRAY + "bookkeepingTime=" + formatMillis(snapshot.getBookkeepingNanos())
+                    + " passes=" + snapshot.getTicketPasses() + " ticketChanges=" + snapshot.getTicketChanges()
+                    + " tasks=" + snapshot.getTasksQueued());
+            return;
+        }
+        List<KeepRegion> regions = new ArrayList<>(manager.getRegions());
+        if (regions.isEmpty()) {
+            player.sendMessage(PREFIX + "Keine Regionen gespeichert.");
+            return;
+        }
+        Map<UUID, RegionMetrics.Snapshot> snapshots = new HashMap<>();
+        for (KeepRegion region : regions) {
+            snapshots.put(region.getId(), metrics.snapshot(region));
+        }
+        regions.sort(Comparator.comparingLong((KeepRegion region) -> cost(snapshots.get(region.getId()))).reversed()
+                .thenComparing(Comparator.comparingInt(KeepRegion::chunkCount).reversed()));
+        player.sendMessage(PREFIX + "Teuerste Regionen:");
+        for (KeepRegion region : regions.subList(0, Math.min(STATS_LIMIT, regions.size()))) {
+            RegionMetrics.Snapshot snapshot = snapshots.get(region.getId());
+            player.sendMessage(ChatColor.YELLOW + region.shortId() + ChatColor.GRAY + " " + region.getWorldName()
+                    + " loaded=" + snapshot.getLoadedChunks() + "/" + region.chunkCount()
+                    + " entities=" + snapshot.getEntities() + " tileEntities=" + snapshot.getTileEntities()
+                    + " bookkeepingTime=" + formatMillis(snapshot.getBookkeepingNanos()));
+        }
+    }
+
+    private long cost(RegionMetrics.Snapshot snapshot) {
+        return snapshot.getEntities() + snapshot.getTileEntities() + snapshot.getLoadedChunks();
+    }
+
+    private String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1_000_000.0D);
+    }
+
+    private void sendUsage(Player player) {
+        player.sendMessage(PREFIX + "Usage: /keepregion <create|list|remove|priority|policy|mode|stats|optimize|bulk>");
     }
 
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (args.length == 1) {
-            return filter(args[0], List.of("create", "list", "remove"));
+            return filter(args[0], List.of("create", "list", "remove", "priority", "policy", "mode", "stats",
+                    "optimize", "bulk"));
+        }
+        if (args.length == 2 && "create".equalsIgnoreCase(args[0])) {
+            return filter(args[1], List.of("circle", "rect", "polygon", "chunks"));
         }
-        if (args.length == 2 && "remove".equalsIgnoreCase(args[0])) {
-            List<String> ids = new ArrayList<>();
-            for (KeepRegion region : manager.getRegions()) {
-                ids.add(region.shortId());
+        if (args.length == 2 && ("remove".equalsIgnoreCase(args[0]) || "priority".equalsIgnoreCase(args[0])
+                || "stats".equalsIgnoreCase(args[0]) || "policy".equalsIgnoreCase(args[0])
+                || "mode".equalsIgnoreCase(args[0]))) {
+            if (!(sender instanceof Player player)) {
+                return Collections.emptyList();
             }
-            return filter(args[1], ids);
+            return manager.completeIds(player.getUniqueId(), player.getName(), player.getLocation(),
+                    player.hasPermission("keepregion.admin"), args[1], TAB_COMPLETE_LIMIT);
+        }
+        if (args.length >= 2 && "list".equalsIgnoreCase(args[0])) {
+            return filter(args[args.length - 1], List.of("world:", "by:", "near:", "r:", "sort:distance", "sort:size",
+                    "sort:age"));
+        }
+        if (args.length == 2 && "optimize".equalsIgnoreCase(args[0])) {
+            return filter(args[1], List.of("preview", "apply"));
+        }
+        if (args.length == 2 && "bulk".equalsIgnoreCase(args[0])) {
+            return filter(args[1], List.of("import", "export", "clear", "resize"));
+        }
+        if (args.length >= 3 && "bulk".equalsIgnoreCase(args[0]) && !"import".equalsIgnoreCase(args[1])) {
+            return filter(args[args.length - 1], List.of("world:", "by:", "near:", "r:"));
+        }
+        if (args.length == 3 && "mode".equalsIgnoreCase(args[0])) {
+            return filter(args[2], List.of("full", "core"));
+        }
+        if (args.length == 3 && "policy".equalsIgnoreCase(args[0])) {
+            return filter(args[2], List.of("always", "window", "owner", "load", "duty"));
         }
         return Collections.emptyList();
     }
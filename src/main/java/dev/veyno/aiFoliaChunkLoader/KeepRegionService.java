@@ -0,0 +1,100 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import dev.veyno.aiFoliaChunkLoader.api.KeepRegionApi;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public final class KeepRegionService implements KeepRegionApi, Listener {
+    private static final String OWNER_PREFIX = "plugin:";
+
+    private final RegionManager manager;
+
+    public KeepRegionService(RegionManager manager) {
+        this.manager = manager;
+    }
+
+    @Override
+    public KeepRegion create(Plugin owner, World world, int centerX, int centerZ, int radius, RegionShape shape,
+                             boolean persistent) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("Radius must not be negative");
+        }
+        KeepRegion region = KeepRegion.builder(UUID.randomUUID(), world.getName(), centerX, centerZ)
+                .worldUuid(world.getUID()).radius(radius).createdBy(ownerName(owner)).createdAt(Instant.now())
+                .shape(shape == null ? RegionShape.SQUARE : shape).build();
+        KeepRegion result = manager.addRegionIfAbsent(region, persistent);
+        if (result == null) {
+            throw new IllegalStateException("Region " + region.getId() + " could not be added");
+        }
+        return result;
+    }
+
+    @Override
+    public boolean remove(KeepRegion region) {
+        return manager.removeRegion(region);
+    }
+
+    @Override
+    public int removeAll(Plugin owner) {
+        RegionBatch batch = new RegionBatch();
+        regionsOf(owner).forEach(batch::remove);
+        return manager.applyBatch(batch).getRemoved();
+    }
+
+    @Override
+    public Optional<KeepRegion> find(UUID regionId) {
+        return manager.findById(regionId);
+    }
+
+    @Override
+    public List<KeepRegion> regionsAt(World world, int chunkX, int chunkZ) {
+        return manager.regionsAt(world, chunkX, chunkZ);
+    }
+
+    @Override
+    public List<KeepRegion> regionsOf(Plugin owner) {
+        return manager.ownedBy(ownerName(owner));
+    }
+
+    @Override
+    public boolean isActive(KeepRegion region) {
+        return manager.isActive(region);
+    }
+
+    @Override
+    public boolean isPersistent(KeepRegion region) {
+        return manager.isPersistent(region);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> whenTicketed(KeepRegion region) {
+        return manager.whenTicketed(region);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent event) {
+        RegionBatch batch = new RegionBatch();
+        for (KeepRegion region : regionsOf(event.getPlugin())) {
+            if (!manager.isPersistent(region)) {
+                batch.remove(region);
+            }
+        }
+        if (!batch.isEmpty()) {
+            manager.applyBatch(batch);
+        }
+    }
+
+    private static String ownerName(Plugin owner) {
+        return OWNER_PREFIX + owner.getName();
+    }
+}
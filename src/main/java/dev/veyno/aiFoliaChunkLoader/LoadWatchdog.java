@@ -0,0 +1,123 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class LoadWatchdog {
+    private static final int SAMPLE_SHIFT = 5;
+
+    private final JavaPlugin plugin;
+    private final RegionManager manager;
+    private final TickMonitor tickMonitor;
+    private final boolean enabled;
+    private final long intervalTicks;
+    private final double shedMspt;
+    private final double restoreMspt;
+    private final int shedAfterChecks;
+    private final int restoreAfterChecks;
+    private final int maxChangesPerCheck;
+    private final int protectedPriority;
+    private final Map<UUID, Integer> streaks = new ConcurrentHashMap<>();
+    private ScheduledTask task;
+
+    public LoadWatchdog(JavaPlugin plugin, RegionManager manager, TickMonitor tickMonitor) {
+        this.plugin = plugin;
+        this.manager = manager;
+        this.tickMonitor = tickMonitor;
+        this.enabled = plugin.getConfig().getBoolean("watchdog.enabled", false);
+        this.intervalTicks = Math.max(20L, plugin.getConfig().getLong("watchdog.check-interval-seconds", 5L) * 20L);
+        this.shedMspt = plugin.getConfig().getDouble("watchdog.shed-mspt", 45.0D);
+        this.restoreMspt = Math.min(shedMspt, plugin.getConfig().getDouble("watchdog.restore-mspt", 35.0D));
+        this.shedAfterChecks = Math.max(1, plugin.getConfig().getInt("watchdog.shed-after-checks", 2));
+        this.restoreAfterChecks = Math.max(1, plugin.getConfig().getInt("watchdog.restore-after-checks", 6));
+        this.maxChangesPerCheck = Math.max(1, plugin.getConfig().getInt("watchdog.max-changes-per-check", 1));
+        this.protectedPriority = plugin.getConfig().getInt("watchdog.protected-priority", 100);
+    }
+
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (!tickMonitor.hasRegionData()) {
+            plugin.getLogger().warning("Load watchdog needs per-region tick data, which this server does not provide; "
+                    + "watchdog disabled");
+            return;
+        }
+        task = Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, scheduled -> check(), intervalTicks, intervalTicks);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        streaks.clear();
+    }
+
+    public void forget(KeepRegion region) {
+        streaks.remove(region.getId());
+    }
+
+    private void check() {
+        if (!manager.isReady()) {
+            return;
+        }
+        List<KeepRegion> overloaded = new ArrayList<>();
+        List<KeepRegion> recovered = new ArrayList<>();
+        Map<UUID, Map<Long, TickMonitor.Load>> samples = new HashMap<>();
+        for (KeepRegion region : manager.getRegions()) {
+            boolean shed = manager.isShed(region);
+            if (!shed && (!manager.isActive(region) || region.getPriority() >= protectedPriority)) {
+                streaks.remove(region.getId());
+                continue;
+            }
+            TickMonitor.Load load = sample(region, samples);
+            boolean breach = load.isKnown() && (shed ? load.within(restoreMspt) : load.exceeds(shedMspt));
+            if (!breach) {
+                streaks.remove(region.getId());
+                continue;
+            }
+            int streak = streaks.merge(region.getId(), 1, Integer::sum);
+            if (streak >= (shed ? restoreAfterChecks : shedAfterChecks)) {
+                (shed ? recovered : overloaded).add(region);
+            }
+        }
+        overloaded.sort(Comparator.comparingInt(KeepRegion::getPriority)
+                .thenComparing(Comparator.comparingInt(KeepRegion::chunkCount).reversed()));
+        for (KeepRegion region : overloaded.subList(0, Math.min(maxChangesPerCheck, overloaded.size()))) {
+            if (manager.shed(region)) {
+                streaks.remove(region.getId());
+                plugin.getLogger().info("Released region " + region.getId() + " (priority " + region.getPriority()
+                        + ") while its region is overloaded (" + sample(region, samples).describe() + ")");
+            }
+        }
+        recovered.sort(Comparator.comparingInt(KeepRegion::getPriority).reversed());
+        for (KeepRegion region : recovered.subList(0, Math.min(maxChangesPerCheck, recovered.size()))) {
+            if (manager.restore(region)) {
+                streaks.remove(region.getId());
+                plugin.getLogger().info("Restored region " + region.getId() + " after its region recovered ("
+                        + sample(region, samples).describe() + ")");
+            }
+        }
+    }
+
+    private TickMonitor.Load sample(KeepRegion region, Map<UUID, Map<Long, TickMonitor.Load>> samples) {
+        World world = manager.worldOf(region);
+        if (world == null) {
+            return TickMonitor.Load.UNKNOWN;
+        }
+        long section = ChunkKey.of(region.getCenterX() >> SAMPLE_SHIFT, region.getCenterZ() >> SAMPLE_SHIFT);
+        return samples.computeIfAbsent(world.getUID(), key -> new HashMap<>())
+                .computeIfAbsent(section, key -> tickMonitor.regionLoad(world, region.getCenterX(), region.getCenterZ()));
+    }
+}
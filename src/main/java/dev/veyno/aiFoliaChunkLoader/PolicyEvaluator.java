@@ -0,0 +1,109 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.time.LocalTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+public final class PolicyEvaluator {
+    private final JavaPlugin plugin;
+    private final RegionManager manager;
+    private final TickMonitor tickMonitor;
+    private final long intervalTicks;
+    private ScheduledTask task;
+
+    public PolicyEvaluator(JavaPlugin plugin, RegionManager manager, TickMonitor tickMonitor) {
+        this.plugin = plugin;
+        this.manager = manager;
+        this.tickMonitor = tickMonitor;
+        this.intervalTicks = Math.max(20L, plugin.getConfig().getLong("policies.check-interval-seconds", 10L) * 20L);
+    }
+
+    public void start() {
+        task = Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, scheduled -> evaluate(), intervalTicks, intervalTicks);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    public boolean allows(KeepRegion region) {
+        return region.getPolicy().isSatisfied(region, snapshot(), manager.isActive(region));
+    }
+
+    private void evaluate() {
+        if (!manager.isReady()) {
+            return;
+        }
+        Conditions conditions = snapshot();
+        for (KeepRegion region : manager.getRegions()) {
+            if (region.getPolicy().isAlways() || manager.isShed(region)) {
+                continue;
+            }
+            boolean active = manager.isActive(region);
+            boolean wanted = region.getPolicy().isSatisfied(region, conditions, active);
+            if (wanted && !active && manager.activate(region)) {
+                plugin.getLogger().fine("Activated region " + region.getId() + " (" + region.getPolicy().toSpec() + ")");
+            } else if (!wanted && active && manager.deactivate(region)) {
+                plugin.getLogger().fine("Deactivated region " + region.getId() + " (" + region.getPolicy().toSpec() + ")");
+            }
+        }
+    }
+
+    private Conditions snapshot() {
+        long now = System.currentTimeMillis();
+        LocalTime time = LocalTime.now();
+        return new Conditions(time.getHour() * 60 + time.getMinute(), TimeUnit.MILLISECONDS.toMinutes(now),
+                Bukkit.getOnlinePlayers().size());
+    }
+
+    private final class Conditions implements ActivationPolicy.Conditions {
+        private final int minuteOfDay;
+        private final long epochMinute;
+        private final int onlinePlayers;
+
+        private Conditions(int minuteOfDay, long epochMinute, int onlinePlayers) {
+            this.minuteOfDay = minuteOfDay;
+            this.epochMinute = epochMinute;
+            this.onlinePlayers = onlinePlayers;
+        }
+
+        @Override
+        public int getMinuteOfDay() {
+            return minuteOfDay;
+        }
+
+        @Override
+        public long getEpochMinute() {
+            return epochMinute;
+        }
+
+        @Override
+        public int getOnlinePlayers() {
+            return onlinePlayers;
+        }
+
+        @Override
+        public TickMonitor.Load getLoad(KeepRegion region) {
+            World world = manager.worldOf(region);
+            return world == null ? TickMonitor.Load.UNKNOWN
+                    : tickMonitor.regionLoad(world, region.getCenterX(), region.getCenterZ());
+        }
+
+        @Override
+        public boolean isOwnerOnline(KeepRegion region) {
+            UUID ownerId = region.getCreatedById();
+            if (ownerId != null) {
+                return Bukkit.getPlayer(ownerId) != null;
+            }
+            return region.getCreatedBy() != null && Bukkit.getPlayerExact(region.getCreatedBy()) != null;
+        }
+    }
+}
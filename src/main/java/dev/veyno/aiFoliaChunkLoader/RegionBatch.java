@@ -0,0 +1,87 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class RegionBatch {
+    private final List<KeepRegion> added = new ArrayList<>();
+    private final List<KeepRegion> removed = new ArrayList<>();
+    private final Map<KeepRegion, KeepRegion> replaced = new LinkedHashMap<>();
+    private boolean persisted = true;
+
+    public RegionBatch add(KeepRegion region) {
+        added.add(region);
+        return this;
+    }
+
+    public RegionBatch remove(KeepRegion region) {
+        removed.add(region);
+        return this;
+    }
+
+    public RegionBatch replace(KeepRegion current, KeepRegion updated) {
+        if (!current.getId().equals(updated.getId()) || !current.getWorldName().equalsIgnoreCase(updated.getWorldName())) {
+            throw new IllegalArgumentException("Region id and world must not change");
+        }
+        replaced.put(current, updated);
+        return this;
+    }
+
+    public RegionBatch skipPersistence() {
+        persisted = false;
+        return this;
+    }
+
+    public boolean isPersisted() {
+        return persisted;
+    }
+
+    public List<KeepRegion> getAdded() {
+        return Collections.unmodifiableList(added);
+    }
+
+    public List<KeepRegion> getRemoved() {
+        return Collections.unmodifiableList(removed);
+    }
+
+    public Map<KeepRegion, KeepRegion> getReplaced() {
+        return Collections.unmodifiableMap(replaced);
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && replaced.isEmpty();
+    }
+
+    public static final class Result {
+        private final int added;
+        private final int removed;
+        private final int replaced;
+        private final int skipped;
+
+        Result(int added, int removed, int replaced, int skipped) {
+            this.added = added;
+            this.removed = removed;
+            this.replaced = replaced;
+            this.skipped = skipped;
+        }
+
+        public int getAdded() {
+            return added;
+        }
+
+        public int getRemoved() {
+            return removed;
+        }
+
+        public int getReplaced() {
+            return replaced;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import java.util.Objects;
+
+public final class RegionChange {
+    public enum Type {
+        UPSERT,
+        REMOVE
+    }
+
+    private final Type type;
+    private final KeepRegion region;
+
+    private RegionChange(Type type, KeepRegion region) {
+        this.type = type;
+        this.region = Objects.requireNonNull(region, "region");
+    }
+
+    public static RegionChange upsert(KeepRegion region) {
+        return new RegionChange(Type.UPSERT, region);
+    }
+
+    public static RegionChange remove(KeepRegion region) {
+        return new RegionChange(Type.REMOVE, region);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public KeepRegion getRegion() {
+        return region;
+    }
+}
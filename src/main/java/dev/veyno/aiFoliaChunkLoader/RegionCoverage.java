@@ -0,0 +1,114 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+public final class RegionCoverage {
+    private volatile Cached cached;
+
+    public Map<String, Summary> summarize(RegionIndex index) {
+        Cached current = cached;
+        if (current != null && current.index == index) {
+            return current.summaries;
+        }
+        Map<String, ChunkBitmap> unions = new LinkedHashMap<>();
+        Map<String, Long> nominal = new LinkedHashMap<>();
+        for (KeepRegion region : index.all()) {
+            String world = region.getWorldName().toLowerCase(Locale.ROOT);
+            unions.computeIfAbsent(world, key -> new ChunkBitmap()).addAll(region);
+            nominal.merge(world, (long) region.chunkCount(), Long::sum);
+        }
+        Map<String, Summary> summaries = new LinkedHashMap<>();
+        for (Map.Entry<String, ChunkBitmap> entry : unions.entrySet()) {
+            summaries.put(entry.getKey(), new Summary(entry.getValue().cardinality(), nominal.get(entry.getKey())));
+        }
+        Map<String, Summary> result = Collections.unmodifiableMap(summaries);
+        cached = new Cached(index, result);
+        return result;
+    }
+
+    public static List<KeepRegion> redundant(RegionIndex index, String worldName, Predicate<KeepRegion> persistent) {
+        List<KeepRegion> candidates = new ArrayList<>(worldName == null ? index.all() : index.inWorld(worldName));
+        candidates.removeIf(persistent.negate());
+        candidates.sort(Comparator.comparingInt(KeepRegion::getPriority)
+                .thenComparingInt(KeepRegion::chunkCount)
+                .thenComparing(region -> region.getId().toString()));
+        Set<UUID> dropped = new HashSet<>();
+        List<KeepRegion> result = new ArrayList<>();
+        for (KeepRegion region : candidates) {
+            if (isCovered(index, region, dropped, persistent)) {
+                dropped.add(region.getId());
+                result.add(region);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isCovered(RegionIndex index, KeepRegion region, Set<UUID> dropped,
+                                     Predicate<KeepRegion> persistent) {
+        for (long key : region.chunkKeys()) {
+            int x = ChunkKey.x(key);
+            int z = ChunkKey.z(key);
+            boolean covered = false;
+            for (KeepRegion other : index.at(region.getWorldName(), x, z)) {
+                if (other != region && !dropped.contains(other.getId()) && persistent.test(other)
+                        && canReplace(other, region)) {
+                    covered = true;
+                    break;
+                }
+            }
+            if (!covered) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean canReplace(KeepRegion other, KeepRegion region) {
+        if (other.getPriority() < region.getPriority() || other.getTicketMode() != TicketMode.FULL) {
+            return false;
+        }
+        if (other.getWorldUuid() != null && region.getWorldUuid() != null
+                && !other.getWorldUuid().equals(region.getWorldUuid())) {
+            return false;
+        }
+        return other.getPolicy().isAlways() || other.getPolicy().equals(region.getPolicy());
+    }
+
+    public static final class Summary {
+        private final long realChunks;
+        private final long nominalChunks;
+
+        private Summary(long realChunks, long nominalChunks) {
+            this.realChunks = realChunks;
+            this.nominalChunks = nominalChunks;
+        }
+
+        public long getRealChunks() {
+            return realChunks;
+        }
+
+        public long getNominalChunks() {
+            return nominalChunks;
+        }
+    }
+
+    private static final class Cached {
+        private final RegionIndex index;
+        private final Map<String, Summary> summaries;
+
+        private Cached(RegionIndex index, Map<String, Summary> summaries) {
+            this.index = index;
+            this.summaries = summaries;
+        }
+    }
+}
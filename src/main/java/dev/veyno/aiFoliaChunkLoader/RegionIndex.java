@@ -0,0 +1,512 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.LongConsumer;
+
+public final class RegionIndex {
+    public static final RegionIndex EMPTY = new RegionIndex(Collections.emptyMap(), Collections.emptyMap(), 0);
+
+    private static final int CELL_SHIFT = 4;
+
+    private final Map<String, WorldRegions> worlds;
+    private final Map<String, NavigableMap<String, KeepRegion>> owners;
+    private final int size;
+
+    private RegionIndex(Map<String, WorldRegions> worlds, Map<String, NavigableMap<String, KeepRegion>> owners, int size) {
+        this.worlds = worlds;
+        this.owners = owners;
+        this.size = size;
+    }
+
+    public static RegionIndex of(Collection<KeepRegion> regions) {
+        Map<String, WorldRegions.Builder> builders = new LinkedHashMap<>();
+        Map<String, NavigableMap<String, KeepRegion>> owners = new HashMap<>();
+        for (KeepRegion region : regions) {
+            builders.computeIfAbsent(worldKey(region.getWorldName()), key -> new WorldRegions.Builder(WorldRegions.EMPTY))
+                    .add(region);
+            String owner = ownerKey(region.getCreatedById(), region.getCreatedBy());
+            if (owner != null) {
+                owners.computeIfAbsent(owner, key -> new TreeMap<>()).put(region.getId().toString(), region);
+            }
+        }
+        Map<String, WorldRegions> worlds = new LinkedHashMap<>();
+        int size = 0;
+        for (Map.Entry<String, WorldRegions.Builder> entry : builders.entrySet()) {
+            WorldRegions world = entry.getValue().build();
+            worlds.put(entry.getKey(), world);
+            size += world.regions.size();
+        }
+        return new RegionIndex(Collections.unmodifiableMap(worlds), Collections.unmodifiableMap(owners), size);
+    }
+
+    public RegionIndex plus(KeepRegion region) {
+        String key = worldKey(region.getWorldName());
+        WorldRegions world = worlds.getOrDefault(key, WorldRegions.EMPTY);
+        if (world.byId.containsKey(region.getId().toString())) {
+            return this;
+        }
+        WorldRegions.Builder builder = new WorldRegions.Builder(world);
+        builder.add(region);
+        return withWorld(key, builder.build(), withOwner(region, true), size + 1);
+    }
+
+    public RegionIndex minus(KeepRegion region) {
+        String key = worldKey(region.getWorldName());
+        WorldRegions world = worlds.get(key);
+        if (world == null || world.byId.get(region.getId().toString()) != region) {
+            return this;
+        }
+        WorldRegions.Builder builder = new WorldRegions.Builder(world);
+        builder.remove(region);
+        return withWorld(key, builder.build(), withOwner(region, false), size - 1);
+    }
+
+    public RegionIndex apply(Collection<KeepRegion> removed, Collection<KeepRegion> added) {
+        Map<String, WorldRegions.Builder> builders = new HashMap<>();
+        Map<String, NavigableMap<String, KeepRegion>> ownerCopies = new HashMap<>();
+        int newSize = size;
+        for (KeepRegion region : removed) {
+            String key = worldKey(region.getWorldName());
+            WorldRegions.Builder builder = builders.get(key);
+            WorldRegions world = worlds.get(key);
+            boolean present = builder != null ? builder.byId.get(region.getId().toString()) == region
+                    : world != null && world.byId.get(region.getId().toString()) == region;
+            if (!present) {
+                continue;
+            }
+            if (builder == null) {
+                builder = new WorldRegions.Builder(world);
+                builders.put(key, builder);
+            }
+            builder.remove(region);
+            ownerCopy(ownerCopies, region).ifPresent(owned -> owned.remove(region.getId().toString()));
+            newSize--;
+        }
+        for (KeepRegion region : added) {
+            String key = worldKey(region.getWorldName());
+            WorldRegions.Builder builder = builders.computeIfAbsent(key,
+                    ignored -> new WorldRegions.Builder(worlds.getOrDefault(key, WorldRegions.EMPTY)));
+            if (builder.byId.containsKey(region.getId().toString())) {
+                continue;
+            }
+            builder.add(region);
+            ownerCopy(ownerCopies, region).ifPresent(owned -> owned.put(region.getId().toString(), region));
+            newSize++;
+        }
+        if (builders.isEmpty()) {
+            return this;
+        }
+        Map<String, WorldRegions> worldCopy = new LinkedHashMap<>(worlds);
+        for (Map.Entry<String, WorldRegions.Builder> entry : builders.entrySet()) {
+            WorldRegions world = entry.getValue().build();
+            if (world.regions.isEmpty()) {
+                worldCopy.remove(entry.getKey());
+            } else {
+                worldCopy.put(entry.getKey(), world);
+            }
+        }
+        Map<String, NavigableMap<String, KeepRegion>> ownerCopy = new HashMap<>(owners);
+        for (Map.Entry<String, NavigableMap<String, KeepRegion>> entry : ownerCopies.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                ownerCopy.remove(entry.getKey());
+            } else {
+                ownerCopy.put(entry.getKey(), Collections.unmodifiableNavigableMap(entry.getValue()));
+            }
+        }
+        return new RegionIndex(Collections.unmodifiableMap(worldCopy), Collections.unmodifiableMap(ownerCopy), newSize);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(KeepRegion region) {
+        WorldRegions world = worlds.get(worldKey(region.getWorldName()));
+        return world != null && world.byId.get(region.getId().toString()) == region;
+    }
+
+    public KeepRegion find(KeepRegion region) {
+        WorldRegions world = worlds.get(worldKey(region.getWorldName()));
+        return world == null ? null : world.byId.get(region.getId().toString());
+    }
+
+    public List<KeepRegion> all() {
+        List<KeepRegion> result = new ArrayList<>(size);
+        for (WorldRegions world : worlds.values()) {
+            result.addAll(world.regions);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    public List<KeepRegion> inWorld(String worldName) {
+        WorldRegions world = worlds.get(worldKey(worldName));
+        return world == null ? Collections.emptyList() : List.copyOf(world.regions);
+    }
+
+    public boolean containsKey(KeepRegion candidate) {
+        WorldRegions world = worlds.get(worldKey(candidate.getWorldName()));
+        if (world == null) {
+            return false;
+        }
+        for (KeepRegion region : world.centers.getOrDefault(ChunkKey.of(candidate.getCenterX(), candidate.getCenterZ()),
+                Collections.emptyList())) {
+            if (region.sameKey(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<KeepRegion> byCenter(String worldName, int centerX, int centerZ) {
+        WorldRegions world = worlds.get(worldKey(worldName));
+        if (world == null) {
+            return Collections.emptyList();
+        }
+        return world.centers.getOrDefault(ChunkKey.of(centerX, centerZ), Collections.emptyList());
+    }
+
+    public List<KeepRegion> byIdPrefix(String prefix, int limit) {
+        String normalized = prefix.toLowerCase(Locale.ROOT);
+        List<KeepRegion> matches = new ArrayList<>();
+        for (WorldRegions world : worlds.values()) {
+            for (Map.Entry<String, KeepRegion> entry : world.byId.tailMap(normalized, true).entrySet()) {
+                if (!entry.getKey().startsWith(normalized) || matches.size() >= limit) {
+                    break;
+                }
+                matches.add(entry.getValue());
+            }
+        }
+        return matches;
+    }
+
+    public List<KeepRegion> ownedByPrefix(String owner, String prefix, int limit) {
+        NavigableMap<String, KeepRegion> owned = owner == null ? null : owners.get(owner);
+        if (owned == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<KeepRegion> matches = new ArrayList<>(Math.min(limit, owned.size()));
+        for (Map.Entry<String, KeepRegion> entry : owned.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix) || matches.size() >= limit) {
+                break;
+            }
+            matches.add(entry.getValue());
+        }
+        return matches;
+    }
+
+    public static String ownerKey(UUID ownerId, String ownerName) {
+        if (ownerId != null) {
+            return ownerId.toString();
+        }
+        return ownerName == null ? null : "name:" + ownerName.toLowerCase(Locale.ROOT);
+    }
+
+    public List<KeepRegion> at(String worldName, int chunkX, int chunkZ) {
+        WorldRegions world = worlds.get(worldKey(worldName));
+        if (world == null) {
+            return Collections.emptyList();
+        }
+        List<KeepRegion> result = new ArrayList<>();
+        for (KeepRegion region : world.cells.getOrDefault(ChunkKey.of(chunkX >> CELL_SHIFT, chunkZ >> CELL_SHIFT),
+                Collections.emptyList())) {
+            if (covers(region, chunkX, chunkZ)) {
+                result.add(region);
+            }
+        }
+        return result;
+    }
+
+    public List<KeepRegion> intersecting(String worldName, int minX, int minZ, int maxX, int maxZ) {
+        WorldRegions world = worlds.get(worldKey(worldName));
+        if (world == null) {
+            return Collections.emptyList();
+        }
+        Set<KeepRegion> result = new LinkedHashSet<>();
+        for (int cellX = minX >> CELL_SHIFT; cellX <= maxX >> CELL_SHIFT; cellX++) {
+            for (int cellZ = minZ >> CELL_SHIFT; cellZ <= maxZ >> CELL_SHIFT; cellZ++) {
+                for (KeepRegion region : world.cells.getOrDefault(ChunkKey.of(cellX, cellZ), Collections.emptyList())) {
+                    if (intersects(region, minX, minZ, maxX, maxZ)) {
+                        result.add(region);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    public List<KeepRegion> nearest(String worldName, int chunkX, int chunkZ, int limit) {
+        return nearest(worldName, chunkX, chunkZ, limit, Integer.MAX_VALUE);
+    }
+
+    public List<KeepRegion> nearest(String worldName, int chunkX, int chunkZ, int limit, int maxDistance) {
+        WorldRegions world = worlds.get(worldKey(worldName));
+        if (world == null || limit <= 0 || maxDistance < 0) {
+            return Collections.emptyList();
+        }
+        Comparator<KeepRegion> byDistance = Comparator.comparingInt(region -> distance(region, chunkX, chunkZ));
+        List<KeepRegion> found = new ArrayList<>();
+        int originX = chunkX >> CELL_SHIFT;
+        int originZ = chunkZ >> CELL_SHIFT;
+        int maxRing = Math.min((maxDistance >> CELL_SHIFT) + 1, world.ringsToCover(originX, originZ));
+        long side = 2L * maxRing + 1L;
+        if (side * side > 4L * world.centerCells.size()) {
+            for (KeepRegion region : world.regions) {
+                if (distance(region, chunkX, chunkZ) <= maxDistance) {
+                    found.add(region);
+                }
+            }
+            found.sort(byDistance);
+            return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+        }
+        int seen = 0;
+        for (int ring = 0; ring <= maxRing && seen < world.regions.size(); ring++) {
+            if (found.size() >= limit) {
+                found.sort(byDistance);
+                int bound = ((ring - 1) << CELL_SHIFT) + 1;
+                if (distance(found.get(limit - 1), chunkX, chunkZ) <= bound) {
+                    break;
+                }
+            }
+            if (ring == 0) {
+                seen += collect(world, originX, originZ, chunkX, chunkZ, maxDistance, found);
+                continue;
+            }
+            for (int offset = -ring; offset <= ring; offset++) {
+                seen += collect(world, originX + offset, originZ - ring, chunkX, chunkZ, maxDistance, found);
+                seen += collect(world, originX + offset, originZ + ring, chunkX, chunkZ, maxDistance, found);
+            }
+            for (int offset = -ring + 1; offset <= ring - 1; offset++) {
+                seen += collect(world, originX - ring, originZ + offset, chunkX, chunkZ, maxDistance, found);
+                seen += collect(world, originX + ring, originZ + offset, chunkX, chunkZ, maxDistance, found);
+            }
+        }
+        found.sort(byDistance);
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    private static int collect(WorldRegions world, int cellX, int cellZ, int chunkX, int chunkZ, int maxDistance,
+                               List<KeepRegion> found) {
+        List<KeepRegion> cell = world.centerCells.get(ChunkKey.of(cellX, cellZ));
+        if (cell == null) {
+            return 0;
+        }
+        for (KeepRegion region : cell) {
+            if (distance(region, chunkX, chunkZ) <= maxDistance) {
+                found.add(region);
+            }
+        }
+        return cell.size();
+    }
+
+    public static int distance(KeepRegion region, int chunkX, int chunkZ) {
+        return Math.max(Math.abs(chunkX - region.getCenterX()), Math.abs(chunkZ - region.getCenterZ()));
+    }
+
+    private RegionIndex withWorld(String key, WorldRegions world, Map<String, NavigableMap<String, KeepRegion>> newOwners,
+                                  int newSize) {
+        Map<String, WorldRegions> copy = new LinkedHashMap<>(worlds);
+        if (world.regions.isEmpty()) {
+            copy.remove(key);
+        } else {
+            copy.put(key, world);
+        }
+        return new RegionIndex(Collections.unmodifiableMap(copy), newOwners, newSize);
+    }
+
+    private Optional<NavigableMap<String, KeepRegion>> ownerCopy(Map<String, NavigableMap<String, KeepRegion>> copies,
+                                                              KeepRegion region) {
+        String owner = ownerKey(region.getCreatedById(), region.getCreatedBy());
+        if (owner == null) {
+            return Optional.empty();
+        }
+        return Optional.of(copies.computeIfAbsent(owner,
+                key -> new TreeMap<>(owners.getOrDefault(key, Collections.emptyNavigableMap()))));
+    }
+
+    private Map<String, NavigableMap<String, KeepRegion>> withOwner(KeepRegion region, boolean add) {
+        String owner = ownerKey(region.getCreatedById(), region.getCreatedBy());
+        if (owner == null) {
+            return owners;
+        }
+        NavigableMap<String, KeepRegion> owned = new TreeMap<>(owners.getOrDefault(owner, Collections.emptyNavigableMap()));
+        if (add) {
+            owned.put(region.getId().toString(), region);
+        } else {
+            owned.remove(region.getId().toString());
+        }
+        Map<String, NavigableMap<String, KeepRegion>> copy = new HashMap<>(owners);
+        if (owned.isEmpty()) {
+            copy.remove(owner);
+        } else {
+            copy.put(owner, Collections.unmodifiableNavigableMap(owned));
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private static boolean covers(KeepRegion region, int chunkX, int chunkZ) {
+        return region.contains(chunkX, chunkZ);
+    }
+
+    private static boolean intersects(KeepRegion region, int minX, int minZ, int maxX, int maxZ) {
+        int radius = region.getRadius();
+        int fromX = Math.max(minX, region.getCenterX() - radius);
+        int toX = Math.min(maxX, region.getCenterX() + radius);
+        int fromZ = Math.max(minZ, region.getCenterZ() - radius);
+        int toZ = Math.min(maxZ, region.getCenterZ() + radius);
+        if (fromX > toX || fromZ > toZ) {
+            return false;
+        }
+        if (region.getShape().getType() == RegionShape.Type.SQUARE) {
+            return true;
+        }
+        for (int x = fromX; x <= toX; x++) {
+            for (int z = fromZ; z <= toZ; z++) {
+                if (region.contains(x, z)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String worldKey(String worldName) {
+        return worldName.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class WorldRegions {
+        private static final WorldRegions EMPTY = new WorldRegions(Collections.emptySet(), new TreeMap<>(),
+                Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(),
+                centerBounds(Collections.emptyMap()));
+
+        private final Set<KeepRegion> regions;
+        private final NavigableMap<String, KeepRegion> byId;
+        private final Map<Long, List<KeepRegion>> cells;
+        private final Map<Long, List<KeepRegion>> centers;
+        private final Map<Long, List<KeepRegion>> centerCells;
+        private final int[] centerBounds;
+
+        private WorldRegions(Set<KeepRegion> regions, NavigableMap<String, KeepRegion> byId,
+                             Map<Long, List<KeepRegion>> cells, Map<Long, List<KeepRegion>> centers,
+                             Map<Long, List<KeepRegion>> centerCells, int[] centerBounds) {
+            this.regions = regions;
+            this.byId = byId;
+            this.cells = cells;
+            this.centers = centers;
+            this.centerCells = centerCells;
+            this.centerBounds = centerBounds;
+        }
+
+        private static int[] centerBounds(Map<Long, List<KeepRegion>> centerCells) {
+            int[] bounds = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE};
+            for (long key : centerCells.keySet()) {
+                bounds[0] = Math.min(bounds[0], ChunkKey.x(key));
+                bounds[1] = Math.min(bounds[1], ChunkKey.z(key));
+                bounds[2] = Math.max(bounds[2], ChunkKey.x(key));
+                bounds[3] = Math.max(bounds[3], ChunkKey.z(key));
+            }
+            return bounds;
+        }
+
+        private int ringsToCover(int cellX, int cellZ) {
+            int[] bounds = centerBounds;
+            if (bounds[0] > bounds[2]) {
+                return -1;
+            }
+            long rings = Math.max(Math.max((long) cellX - bounds[0], (long) bounds[2] - cellX),
+                    Math.max((long) cellZ - bounds[1], (long) bounds[3] - cellZ));
+            return (int) Math.min(Integer.MAX_VALUE, rings);
+        }
+
+        private static final class Builder {
+            private final Set<KeepRegion> regions;
+            private final NavigableMap<String, KeepRegion> byId;
+            private final Map<Long, List<KeepRegion>> cells;
+            private final Map<Long, List<KeepRegion>> centers;
+            private final Map<Long, List<KeepRegion>> centerCells;
+
+            private Builder(WorldRegions base) {
+                this.regions = new LinkedHashSet<>(base.regions);
+                this.byId = new TreeMap<>(base.byId);
+                this.cells = new HashMap<>(base.cells);
+                this.centers = new HashMap<>(base.centers);
+                this.centerCells = new HashMap<>(base.centerCells);
+            }
+
+            private void add(KeepRegion region) {
+                regions.add(region);
+                byId.put(region.getId().toString(), region);
+                forEachCell(region, cell -> attach(cells, cell, region));
+                attach(centers, ChunkKey.of(region.getCenterX(), region.getCenterZ()), region);
+                attach(centerCells, centerCell(region), region);
+            }
+
+            private void remove(KeepRegion region) {
+                regions.remove(region);
+                byId.remove(region.getId().toString());
+                forEachCell(region, cell -> detach(cells, cell, region));
+                detach(centers, ChunkKey.of(region.getCenterX(), region.getCenterZ()), region);
+                detach(centerCells, centerCell(region), region);
+            }
+
+            private WorldRegions build() {
+                return new WorldRegions(Collections.unmodifiableSet(regions), byId, cells, centers, centerCells,
+                        centerBounds(centerCells));
+            }
+        }
+
+        private static long centerCell(KeepRegion region) {
+            return ChunkKey.of(region.getCenterX() >> CELL_SHIFT, region.getCenterZ() >> CELL_SHIFT);
+        }
+
+        private static void forEachCell(KeepRegion region, LongConsumer action) {
+            int radius = region.getRadius();
+            int minCellX = (region.getCenterX() - radius) >> CELL_SHIFT;
+            int maxCellX = (region.getCenterX() + radius) >> CELL_SHIFT;
+            int minCellZ = (region.getCenterZ() - radius) >> CELL_SHIFT;
+            int maxCellZ = (region.getCenterZ() + radius) >> CELL_SHIFT;
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                    action.accept(ChunkKey.of(cellX, cellZ));
+                }
+            }
+        }
+
+        private static void attach(Map<Long, List<KeepRegion>> map, long key, KeepRegion region) {
+            List<KeepRegion> bucket = map.get(key);
+            List<KeepRegion> copy = new ArrayList<>(bucket == null ? 1 : bucket.size() + 1);
+            if (bucket != null) {
+                copy.addAll(bucket);
+            }
+            copy.add(region);
+            map.put(key, Collections.unmodifiableList(copy));
+        }
+
+        private static void detach(Map<Long, List<KeepRegion>> map, long key, KeepRegion region) {
+            List<KeepRegion> bucket = map.get(key);
+            if (bucket == null) {
+                return;
+            }
+            List<KeepRegion> copy = new ArrayList<>(bucket);
+            copy.remove(region);
+            if (copy.isEmpty()) {
+                map.remove(key);
+            } else {
+                map.put(key, Collections.unmodifiableList(copy));
+            }
+        }
+    }
+}
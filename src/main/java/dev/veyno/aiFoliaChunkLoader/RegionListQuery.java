@@ -0,0 +1,197 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+public final class RegionListQuery {
+    private final int page;
+    private final String world;
+    private final String creator;
+    private final int near;
+    private final int minRadius;
+    private final int maxRadius;
+    private final Sort sort;
+
+    private RegionListQuery(int page, String world, String creator, int near, int minRadius, int maxRadius, Sort sort) {
+        this.page = page;
+        this.world = world;
+        this.creator = creator;
+        this.near = near;
+        this.minRadius = minRadius;
+        this.maxRadius = maxRadius;
+        this.sort = sort;
+    }
+
+    public static RegionListQuery parse(String[] args, int from) {
+        int page = 1;
+        String world = null;
+        String creator = null;
+        int near = -1;
+        int minRadius = 0;
+        int maxRadius = Integer.MAX_VALUE;
+        Sort sort = Sort.DISTANCE;
+        try {
+            for (int i = from; i < args.length; i++) {
+                String arg = args[i];
+                int separator = arg.indexOf(':');
+                if (separator < 0) {
+                    page = Integer.parseInt(arg);
+                    continue;
+                }
+                String key = arg.substring(0, separator).toLowerCase(Locale.ROOT);
+                String value = arg.substring(separator + 1);
+                switch (key) {
+                    case "world" -> world = value;
+                    case "by" -> creator = value;
+                    case "near" -> near = Integer.parseInt(value);
+                    case "r" -> {
+                        int dash = value.indexOf('-', 1);
+                        minRadius = Integer.parseInt(dash < 0 ? value : value.substring(0, dash));
+                        maxRadius = dash < 0 ? minRadius : Integer.parseInt(value.substring(dash + 1));
+                    }
+                    case "sort" -> sort = Sort.valueOf(value.toUpperCase(Locale.ROOT));
+                    default -> throw new IllegalArgumentException("Unknown filter " + key);
+                }
+            }
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid number in list query", ex);
+        }
+        if (page < 1 || minRadius > maxRadius) {
+            throw new IllegalArgumentException("Invalid list query");
+        }
+        return new RegionListQuery(page, world, creator, near, minRadius, maxRadius, sort);
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public String getWorld() {
+        return world;
+    }
+
+    public boolean hasFilters() {
+        return world != null || creator != null || near >= 0 || minRadius > 0 || maxRadius != Integer.MAX_VALUE;
+    }
+
+    public List<KeepRegion> matching(List<KeepRegion> regions, String viewerWorld, int viewerX, int viewerZ) {
+        List<KeepRegion> matches = new ArrayList<>();
+        for (KeepRegion region : regions) {
+            if (matches(region, viewerWorld, viewerX, viewerZ)) {
+                matches.add(region);
+            }
+        }
+        return matches;
+    }
+
+    public Result run(List<KeepRegion> regions, String viewerWorld, int viewerX, int viewerZ, int pageSize) {
+        List<KeepRegion> matches = matching(regions, viewerWorld, viewerX, viewerZ);
+        int pages = Math.max(1, (matches.size() + pageSize - 1) / pageSize);
+        int current = Math.min(page, pages);
+        int from = (current - 1) * pageSize;
+        int limit = Math.min(matches.size(), from + pageSize);
+        Comparator<KeepRegion> order = comparator(viewerWorld, viewerX, viewerZ);
+        PriorityQueue<KeepRegion> head = new PriorityQueue<>(Math.max(1, limit), order.reversed());
+        for (KeepRegion region : matches) {
+            if (head.size() < limit) {
+                head.add(region);
+            } else if (limit > 0 && order.compare(region, head.peek()) < 0) {
+                head.poll();
+                head.add(region);
+            }
+        }
+        List<KeepRegion> sorted = new ArrayList<>(head);
+        sorted.sort(order);
+        return new Result(List.copyOf(sorted.subList(Math.min(from, sorted.size()), sorted.size())), matches.size(),
+                current, pages);
+    }
+
+    public String toArgs(int targetPage) {
+        StringBuilder args = new StringBuilder().append(targetPage);
+        if (world != null) {
+            args.append(" world:").append(world);
+        }
+        if (creator != null) {
+            args.append(" by:").append(creator);
+        }
+        if (near >= 0) {
+            args.append(" near:").append(near);
+        }
+        if (minRadius > 0 || maxRadius != Integer.MAX_VALUE) {
+            args.append(" r:").append(minRadius).append('-').append(maxRadius == Integer.MAX_VALUE ? minRadius : maxRadius);
+        }
+        if (sort != Sort.DISTANCE) {
+            args.append(" sort:").append(sort.name().toLowerCase(Locale.ROOT));
+        }
+        return args.toString();
+    }
+
+    private boolean matches(KeepRegion region, String viewerWorld, int viewerX, int viewerZ) {
+        if (world != null && !region.getWorldName().equalsIgnoreCase(world)) {
+            return false;
+        }
+        if (creator != null && !creator.equalsIgnoreCase(region.getCreatedBy())) {
+            return false;
+        }
+        if (region.getRadius() < minRadius || region.getRadius() > maxRadius) {
+            return false;
+        }
+        if (near >= 0) {
+            return region.getWorldName().equalsIgnoreCase(viewerWorld)
+                    && RegionIndex.distance(region, viewerX, viewerZ) <= near;
+        }
+        return true;
+    }
+
+    private Comparator<KeepRegion> comparator(String viewerWorld, int viewerX, int viewerZ) {
+        Comparator<KeepRegion> byWorld = Comparator.comparing(region -> region.getWorldName().toLowerCase(Locale.ROOT));
+        Comparator<KeepRegion> order = switch (sort) {
+            case DISTANCE -> Comparator.comparing((KeepRegion region) -> !region.getWorldName().equalsIgnoreCase(viewerWorld))
+                    .thenComparing(byWorld)
+                    .thenComparingInt(region -> RegionIndex.distance(region, viewerX, viewerZ));
+            case SIZE -> Comparator.comparingInt(KeepRegion::chunkCount).reversed();
+            case AGE -> Comparator.comparing(KeepRegion::getCreatedAt, Comparator.nullsLast(Comparator.<Instant>reverseOrder()));
+        };
+        return order.thenComparing(region -> region.getId().toString());
+    }
+
+    public enum Sort {
+        DISTANCE,
+        SIZE,
+        AGE
+    }
+
+    public static final class Result {
+        private final List<KeepRegion> entries;
+        private final int matches;
+        private final int page;
+        private final int pages;
+
+        private Result(List<KeepRegion> entries, int matches, int page, int pages) {
+            this.entries = entries;
+            this.matches = matches;
+            this.page = page;
+            this.pages = pages;
+        }
+
+        public List<KeepRegion> getEntries() {
+            return entries;
+        }
+
+        public int getMatches() {
+            return matches;
+        }
+
+        public int getPage() {
+            return page;
+        }
+
+        public int getPages() {
+            return pages;
+        }
+    }
+}
@@ -1,144 +1,809 @@
 package dev.veyno.aiFoliaChunkLoader;
 
+import dev.veyno.aiFoliaChunkLoader.api.KeepRegionActivateEvent;
+import dev.veyno.aiFoliaChunkLoader.api.KeepRegionCreateEvent;
+import dev.veyno.aiFoliaChunkLoader.api.KeepRegionEvent;
+import dev.veyno.aiFoliaChunkLoader.api.KeepRegionRemoveEvent;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 public final class RegionManager {
     private final JavaPlugin plugin;
     private final RegionStore store;
-    private final List<KeepRegion> regions = new ArrayList<>();
+    private final RegionRegistry registry = new RegionRegistry();
+    private final RegionWriter writer;
+    private final WarmupScheduler warmup;
+    private final Set<UUID> activeRegions = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> shedRegions = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> transientRegions = ConcurrentHashMap.newKeySet();
+    private final RegionMetrics metrics;
+    private final TickMonitor tickMonitor;
+    private final PolicyEvaluator policies;
+    private final LoadWatchdog watchdog;
+    private final RegionQuotas quotas;
+    private final RegionCoverage coverage = new RegionCoverage();
+    private final int regionShift;
+    private final int tabCompleteNearChunks;
+    private final TicketPipeline pipeline;
+    private final Map<UUID, ChunkRefCounts> ticketCounts = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> pendingWorlds = new ConcurrentHashMap<>();
+    private final WorldTracker worlds = new WorldTracker(this);
+    private final TicketReconciler reconciler;
 
     public RegionManager(JavaPlugin plugin, RegionStore store) {
         this.plugin = plugin;
         this.store = store;
+        this.regionShift = Math.max(0, Math.min(10, plugin.getConfig().getInt("tickets.region-shift", 4)));
+        this.tabCompleteNearChunks = plugin.getConfig().getInt("tab-complete.near-chunks", 32);
+        this.tickMonitor = new TickMonitor(plugin);
+        this.pipeline = new TicketPipeline(plugin, tickMonitor, this::isChunkWanted);
+        this.writer = new RegionWriter(plugin, store, this::persistentRegions);
+        this.warmup = new WarmupScheduler(plugin, this, pipeline);
+        this.metrics = new RegionMetrics(plugin);
+        this.policies = new PolicyEvaluator(plugin, this, tickMonitor);
+        this.watchdog = new LoadWatchdog(plugin, this, tickMonitor);
+        this.quotas = new RegionQuotas(plugin);
+        this.reconciler = new TicketReconciler(plugin, this, pipeline);
+    }
+
+    public void start() {
+        plugin.getServer().getPluginManager().registerEvents(worlds, plugin);
+        reconciler.reconcileOnStartup(Bukkit.getWorlds(), getRegions());
+        pipeline.start();
+        warmup.start(getRegions());
+        metrics.start(this);
+        policies.start();
+        watchdog.start();
+        reconciler.start();
+    }
+
+    public RegionMetrics getMetrics() {
+        return metrics;
+    }
+
+    public boolean isReady() {
+        return warmup.isReady();
+    }
+
+    public String warmupProgress() {
+        return warmup.progress();
+    }
+
+    public void shutdown() {
+        reconciler.stop();
+        watchdog.stop();
+        policies.stop();
+        metrics.stop();
+        warmup.stop();
+        pipeline.stop();
+        forgetTickets();
+        writer.close();
     }
 
     public void loadRegions() {
-        regions.clear();
-        regions.addAll(store.load());
+        worlds.start();
+        registry.reset(store.load());
+        quotas.reset(registry.snapshot().all());
+    }
+
+    public RegionQuotas getQuotas() {
+        return quotas;
     }
 
     public List<KeepRegion> getRegions() {
-        return Collections.unmodifiableList(regions);
+        return registry.snapshot().all();
+    }
+
+    private List<KeepRegion> persistentRegions() {
+        List<KeepRegion> regions = registry.snapshot().all();
+        if (transientRegions.isEmpty()) {
+            return regions;
+        }
+        List<KeepRegion> result = new ArrayList<>(regions.size());
+        for (KeepRegion region : regions) {
+            if (!transientRegions.contains(region.getId())) {
+                result.add(region);
+            }
+        }
+        return result;
+    }
+
+    public boolean isPersistent(KeepRegion region) {
+        return !transientRegions.contains(region.getId());
     }
 
     public boolean hasRegion(KeepRegion candidate) {
-        return regions.stream().anyMatch(region -> region.sameKey(candidate));
+        return registry.snapshot().containsKey(candidate);
     }
 
-    public void addRegion(KeepRegion region) {
-        regions.add(region);
-        store.save(regions);
-        applyTickets(region, true);
+    public List<KeepRegion> regionsAt(World world, int chunkX, int chunkZ) {
+        return matchingWorld(registry.snapshot().at(world.getName(), chunkX, chunkZ), world);
     }
 
-    public List<KeepRegion> removeByCenter(World world, int centerX, int centerZ) {
+    public List<KeepRegion> regionsIntersecting(World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        return matchingWorld(registry.snapshot().intersecting(world.getName(), minChunkX, minChunkZ, maxChunkX, maxChunkZ), world);
+    }
+
+    public List<KeepRegion> nearestRegions(Location location, int limit) {
+        World world = location.getWorld();
+        if (world == null) {
+            return Collections.emptyList();
+        }
+        return matchingWorld(registry.snapshot().nearest(world.getName(), Math.floorDiv(location.getBlockX(), 16),
+                Math.floorDiv(location.getBlockZ(), 16), limit), world);
+    }
+
+    public boolean addRegion(KeepRegion region) {
+        KeepRegion activated;
+        synchronized (registry.lock(region.getWorldName())) {
+            if (registry.snapshot().containsKey(region)) {
+                return false;
+            }
+            quotas.add(region);
+            activated = insert(region);
+        }
+        fireCreated(region, true, activated);
+        return true;
+    }
+
+    public KeepRegion addRegionIfAbsent(KeepRegion region, boolean persistent) {
+        KeepRegion activated;
+        synchronized (registry.lock(region.getWorldName())) {
+            RegionIndex snapshot = registry.snapshot();
+            for (KeepRegion existing : snapshot.byCenter(region.getWorldName(), region.getCenterX(), region.getCenterZ())) {
+                if (existing.sameKey(region) && Objects.equals(existing.getCreatedBy(), region.getCreatedBy())
+                        && isPersistent(existing) == persistent) {
+                    return existing;
+                }
+            }
+            if (!snapshot.byIdPrefix(region.getId().toString(), 1).isEmpty()) {
+                return null;
+            }
+            if (persistent) {
+                quotas.add(region);
+            } else {
+                transientRegions.add(region.getId());
+            }
+            activated = insert(region);
+        }
+        fireCreated(region, persistent, activated);
+        return region;
+    }
+
+    public RegionQuotas.Result addRegion(KeepRegion region, RegionQuotas.Limits limits) {
+        KeepRegion activated;
+        synchronized (registry.lock(region.getWorldName())) {
+            if (registry.snapshot().containsKey(region)) {
+                return RegionQuotas.Result.DUPLICATE;
+            }
+            RegionQuotas.Result result = quotas.tryReserve(region, limits);
+            if (result != RegionQuotas.Result.OK) {
+                return result;
+            }
+            activated = insert(region);
+        }
+        fireCreated(region, true, activated);
+        return RegionQuotas.Result.OK;
+    }
+
+    private KeepRegion insert(KeepRegion region) {
+        registry.add(region);
+        persist(RegionChange.upsert(region));
+        return policyAllows(region) ? activateLocked(region) : null;
+    }
+
+    private void fireCreated(KeepRegion region, boolean persistent, KeepRegion activated) {
+        fire(new KeepRegionCreateEvent(region, persistent));
+        if (activated != null) {
+            fire(new KeepRegionActivateEvent(activated));
+        }
+    }
+
+    public boolean replaceRegion(KeepRegion current, KeepRegion updated) {
+        if (!current.getId().equals(updated.getId())) {
+            throw new IllegalArgumentException("Region id must not change");
+        }
+        synchronized (registry.lock(current.getWorldName())) {
+            if (!registry.snapshot().contains(current)) {
+                return false;
+            }
+            registry.replace(current, updated);
+            if (isPersistent(current)) {
+                quotas.replace(current, updated);
+            }
+            persist(RegionChange.upsert(updated));
+            if (activeRegions.contains(current.getId())) {
+                applyTickets(updated, true);
+                applyTickets(current, false);
+            }
+        }
+        return true;
+    }
+
+    public void applyExternal(List<KeepRegion> upserts, Set<UUID> removedIds) {
+        RegionBatch batch = new RegionBatch().skipPersistence();
+        RegionBatch moved = new RegionBatch().skipPersistence();
+        for (KeepRegion region : upserts) {
+            Optional<KeepRegion> current = findById(region.getId());
+            if (current.isEmpty()) {
+                moved.add(region);
+            } else if (current.get().getWorldName().equalsIgnoreCase(region.getWorldName())) {
+                batch.replace(current.get(), region);
+            } else {
+                batch.remove(current.get());
+                moved.add(region);
+            }
+        }
+        for (UUID id : removedIds) {
+            findById(id).ifPresent(batch::remove);
+        }
+        RegionBatch.Result first = applyBatch(batch);
+        RegionBatch.Result second = applyBatch(moved);
+        plugin.getLogger().info("Applied shared region changes: " + second.getAdded() + " added, " + first.getReplaced()
+                + " updated, " + first.getRemoved() + " removed, " + (first.getSkipped() + second.getSkipped()) + " skipped");
+    }
+
+    public RegionBatch.Result applyBatch(RegionBatch batch) {
+        Set<String> worlds = new HashSet<>();
+        for (KeepRegion region : batch.getAdded()) {
+            worlds.add(region.getWorldName());
+        }
+        for (KeepRegion region : batch.getRemoved()) {
+            worlds.add(region.getWorldName());
+        }
+        for (Map.Entry<KeepRegion, KeepRegion> entry : batch.getReplaced().entrySet()) {
+            worlds.add(entry.getKey().getWorldName());
+            worlds.add(entry.getValue().getWorldName());
+        }
+        List<KeepRegionEvent> events = new ArrayList<>();
+        RegionBatch.Result result = registry.withWorlds(worlds, () -> applyLocked(batch, events));
+        for (KeepRegionEvent event : events) {
+            fire(event);
+        }
+        return result;
+    }
+
+    private RegionBatch.Result applyLocked(RegionBatch batch, List<KeepRegionEvent> events) {
+        RegionIndex snapshot = registry.snapshot();
         List<KeepRegion> removed = new ArrayList<>();
-        regions.removeIf(region -> {
-            if (!worldMatches(region, world)) {
+        List<KeepRegion> added = new ArrayList<>();
+        List<KeepRegion> fresh = new ArrayList<>();
+        List<KeepRegion> gained = new ArrayList<>();
+        List<KeepRegion> lost = new ArrayList<>();
+        List<RegionChange> changes = new ArrayList<>();
+        Set<UUID> ids = new HashSet<>();
+        int replaced = 0;
+        int skipped = 0;
+        for (KeepRegion region : batch.getRemoved()) {
+            if (!snapshot.contains(region) || !ids.add(region.getId())) {
+                skipped++;
+                continue;
+            }
+            removed.add(region);
+            if (isPersistent(region)) {
+                changes.add(RegionChange.remove(region));
+            }
+            if (activeRegions.remove(region.getId())) {
+                lost.add(region);
+            }
+            forget(region);
+        }
+        for (Map.Entry<KeepRegion, KeepRegion> entry : batch.getReplaced().entrySet()) {
+            KeepRegion current = entry.getKey();
+            KeepRegion updated = entry.getValue();
+            if (!snapshot.contains(current) || !ids.add(current.getId())) {
+                skipped++;
+                continue;
+            }
+            removed.add(current);
+            added.add(updated);
+            if (isPersistent(updated)) {
+                changes.add(RegionChange.upsert(updated));
+            }
+            if (isPersistent(current)) {
+                quotas.replace(current, updated);
+            }
+            if (activeRegions.contains(current.getId())) {
+                lost.add(current);
+                gained.add(updated);
+            }
+            replaced++;
+        }
+        for (KeepRegion region : batch.getAdded()) {
+            if (snapshot.containsKey(region) || !snapshot.byIdPrefix(region.getId().toString(), 1).isEmpty()
+                    || !ids.add(region.getId())) {
+                skipped++;
+                continue;
+            }
+            added.add(region);
+            fresh.add(region);
+            changes.add(RegionChange.upsert(region));
+            quotas.add(region);
+        }
+        if (removed.isEmpty() && added.isEmpty()) {
+            return new RegionBatch.Result(0, 0, 0, skipped);
+        }
+        registry.apply(removed, added);
+        if (batch.isPersisted()) {
+            writer.recordAll(changes);
+        }
+        List<KeepRegion> activated = new ArrayList<>();
+        for (KeepRegion region : fresh) {
+            if (policyAllows(region) && activeRegions.add(region.getId())) {
+                gained.add(region);
+                activated.add(region);
+            }
+        }
+        applyTicketDiff(gained, lost);
+        for (KeepRegion region : removed) {
+            if (!batch.getReplaced().containsKey(region)) {
+                events.add(new KeepRegionRemoveEvent(region));
+            }
+        }
+        for (KeepRegion region : fresh) {
+            events.add(new KeepRegionCreateEvent(region, true));
+        }
+        for (KeepRegion region : activated) {
+            events.add(new KeepRegionActivateEvent(region));
+        }
+        return new RegionBatch.Result(fresh.size(), removed.size() - replaced, replaced, skipped);
+    }
+
+    public boolean setPolicy(KeepRegion current, ActivationPolicy policy) {
+        KeepRegion updated = current.withPolicy(policy);
+        KeepRegion activated = null;
+        synchronized (registry.lock(current.getWorldName())) {
+            if (!replaceRegion(current, updated)) {
                 return false;
             }
-            if (region.getCenterX() == centerX && region.getCenterZ() == centerZ) {
-                removed.add(region);
+            if (isShed(updated)) {
                 return true;
             }
-            return false;
-        });
-        if (!removed.isEmpty()) {
-            store.save(regions);
-            removed.forEach(region -> applyTickets(region, false));
+            if (policyAllows(updated)) {
+                activated = activateLocked(updated);
+            } else {
+                deactivate(updated);
+            }
         }
-        return removed;
+        if (activated != null) {
+            fire(new KeepRegionActivateEvent(activated));
+        }
+        return true;
     }
 
-    public Optional<KeepRegion> removeById(String idInput) {
+    public boolean policyAllows(KeepRegion region) {
+        return policies.allows(region);
+    }
+
+    public Optional<KeepRegion> findById(UUID id) {
+        List<KeepRegion> matches = registry.snapshot().byIdPrefix(id.toString(), 1);
+        return matches.isEmpty() ? Optional.empty() : Optional.of(matches.getFirst());
+    }
+
+    public List<KeepRegion> ownedBy(String ownerName) {
+        return registry.snapshot().ownedByPrefix(RegionIndex.ownerKey(null, ownerName), "", Integer.MAX_VALUE);
+    }
+
+    public Optional<KeepRegion> findById(String idInput) {
         if (idInput == null || idInput.isBlank()) {
             return Optional.empty();
         }
-        KeepRegion match = null;
+        List<KeepRegion> matches = registry.snapshot().byIdPrefix(idInput, 2);
+        return matches.size() == 1 ? Optional.of(matches.getFirst()) : Optional.empty();
+    }
+
+    public List<String> completeIds(UUID ownerId, String ownerName, Location location, boolean everything, String input,
+                                    int limit) {
+        RegionIndex snapshot = registry.snapshot();
+        String prefix = input == null ? "" : input.toLowerCase(Locale.ROOT);
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+        if (everything) {
+            addShortIds(result, snapshot.byIdPrefix(prefix, limit), prefix, limit);
+            return result;
+        }
+        addShortIds(result, snapshot.ownedByPrefix(RegionIndex.ownerKey(ownerId, null), prefix, limit), prefix, limit);
+        addShortIds(result, snapshot.ownedByPrefix(RegionIndex.ownerKey(null, ownerName), prefix, limit), prefix, limit);
+        World world = location.getWorld();
+        if (result.size() < limit && world != null && tabCompleteNearChunks > 0) {
+            int chunkX = Math.floorDiv(location.getBlockX(), 16);
+            int chunkZ = Math.floorDiv(location.getBlockZ(), 16);
+            for (KeepRegion region : matchingWorld(snapshot.nearest(world.getName(), chunkX, chunkZ, limit,
+                    tabCompleteNearChunks), world)) {
+                addShortId(result, region, prefix, limit);
+            }
+        }
+        return result;
+    }
+
+    private static void addShortIds(List<String> result, List<KeepRegion> regions, String prefix, int limit) {
         for (KeepRegion region : regions) {
-            String id = region.getId().toString();
-            String normalized = idInput.toLowerCase();
-            if (id.equalsIgnoreCase(idInput) || id.toLowerCase().startsWith(normalized)) {
-                if (match != null) {
-                    return Optional.empty();
-                }
-                match = region;
+            addShortId(result, region, prefix, limit);
+        }
+    }
+
+    private static void addShortId(List<String> result, KeepRegion region, String prefix, int limit) {
+        String shortId = region.shortId();
+        if (result.size() < limit && shortId.startsWith(prefix) && !result.contains(shortId)) {
+            result.add(shortId);
+        }
+    }
+
+    public boolean activate(KeepRegion region) {
+        KeepRegion current;
+        synchronized (registry.lock(region.getWorldName())) {
+            current = activateLocked(region);
+        }
+        if (current == null) {
+            return false;
+        }
+        fire(new KeepRegionActivateEvent(current));
+        return true;
+    }
+
+    private KeepRegion activateLocked(KeepRegion region) {
+        KeepRegion current = registry.snapshot().find(region);
+        if (current == null || !activeRegions.add(current.getId())) {
+            return null;
+        }
+        applyTickets(current, true);
+        return current;
+    }
+
+    public CompletableFuture<Boolean> whenTicketed(KeepRegion region) {
+        World world = resolveWorld(region);
+        if (world == null || !activeRegions.contains(region.getId())) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return pipeline.barrier(world).thenApply(ignored -> activeRegions.contains(region.getId()));
+    }
+
+    public boolean deactivate(KeepRegion region) {
+        synchronized (registry.lock(region.getWorldName())) {
+            if (!activeRegions.remove(region.getId())) {
+                return false;
+            }
+            applyTickets(region, false);
+            return true;
+        }
+    }
+
+    public boolean isActive(KeepRegion region) {
+        return activeRegions.contains(region.getId());
+    }
+
+    public boolean shed(KeepRegion region) {
+        synchronized (registry.lock(region.getWorldName())) {
+            if (!deactivate(region)) {
+                return false;
             }
+            shedRegions.add(region.getId());
+            return true;
         }
-        if (match == null) {
+    }
+
+    public boolean restore(KeepRegion region) {
+        KeepRegion activated = null;
+        synchronized (registry.lock(region.getWorldName())) {
+            if (!shedRegions.remove(region.getId())) {
+                return false;
+            }
+            if (policyAllows(region)) {
+                activated = activateLocked(region);
+            }
+        }
+        if (activated != null) {
+            fire(new KeepRegionActivateEvent(activated));
+        }
+        return true;
+    }
+
+    public boolean isShed(KeepRegion region) {
+        return shedRegions.contains(region.getId());
+    }
+
+    public List<KeepRegion> removeByCenter(World world, int centerX, int centerZ) {
+        List<KeepRegion> removed;
+        synchronized (registry.lock(world.getName())) {
+            removed = matchingWorld(registry.snapshot().byCenter(world.getName(), centerX, centerZ), world);
+            for (KeepRegion region : removed) {
+                registry.remove(region);
+                persist(RegionChange.remove(region));
+                deactivate(region);
+                forget(region);
+            }
+        }
+        for (KeepRegion region : removed) {
+            fire(new KeepRegionRemoveEvent(region));
+        }
+        return removed;
+    }
+
+    public Map<String, RegionCoverage.Summary> coverage() {
+        return coverage.summarize(registry.snapshot());
+    }
+
+    public List<KeepRegion> redundantRegions(String worldName) {
+        return RegionCoverage.redundant(registry.snapshot(), worldName, this::isPersistent);
+    }
+
+    public boolean removeRegion(KeepRegion region) {
+        synchronized (registry.lock(region.getWorldName())) {
+            if (!registry.snapshot().contains(region)) {
+                return false;
+            }
+            registry.remove(region);
+            persist(RegionChange.remove(region));
+            deactivate(region);
+            forget(region);
+        }
+        fire(new KeepRegionRemoveEvent(region));
+        return true;
+    }
+
+    public Optional<KeepRegion> removeById(String idInput) {
+        Optional<KeepRegion> found = findById(idInput);
+        if (found.isEmpty()) {
             return Optional.empty();
         }
-        regions.remove(match);
-        store.save(regions);
-        applyTickets(match, false);
-        return Optional.of(match);
+        KeepRegion match = found.get();
+        return removeRegion(match) ? Optional.of(match) : Optional.empty();
     }
 
     public int totalRegions() {
-        return regions.size();
+        return registry.snapshot().size();
     }
 
-    public void applyAllTickets() {
-        for (KeepRegion region : regions) {
-            applyTickets(region, true);
+    private void forgetTickets() {
+        activeRegions.clear();
+        shedRegions.clear();
+        pendingWorlds.clear();
+        ticketCounts.clear();
+    }
+
+    public int ticketedChunks(KeepRegion region) {
+        World world = resolveWorld(region);
+        return world == null ? 0 : pipeline.ticketedCount(world, region.ticketKeys());
+    }
+
+    public long[] desiredTickets(World world) {
+        ChunkRefCounts counts = ticketCounts.get(world.getUID());
+        return counts == null ? new long[0] : counts.keys();
+    }
+
+    public void releaseOrphans(World world, long[] chunkKeys) {
+        if (chunkKeys.length > 0) {
+            releaseTickets(world, chunkKeys);
         }
     }
 
-    public void removeAllTickets() {
-        for (KeepRegion region : regions) {
-            applyTickets(region, false);
+    public List<long[]> sections(long[] chunkKeys) {
+        return ChunkSections.split(chunkKeys, regionShift);
+    }
+
+    private void persist(RegionChange change) {
+        if (isPersistent(change.getRegion())) {
+            writer.record(change);
+        }
+    }
+
+    private void fire(KeepRegionEvent event) {
+        try {
+            plugin.getServer().getPluginManager().callEvent(event);
+        } catch (Exception ex) {
+            plugin.getLogger().log(Level.WARNING, "Failed to dispatch " + event.getClass().getSimpleName(), ex);
+        }
+    }
+
+    private void forget(KeepRegion region) {
+        if (!transientRegions.remove(region.getId())) {
+            quotas.remove(region);
+        }
+        shedRegions.remove(region.getId());
+        watchdog.forget(region);
+        metrics.forget(region);
+    }
+
+    void worldLoaded(World world) {
+        reconciler.seed(List.of(world));
+        if (store instanceof SharedRegionStore shared) {
+            shared.rescan();
+        }
+        synchronized (registry.lock(world.getName())) {
+            Set<UUID> pending = pendingWorlds.remove(world.getName().toLowerCase(Locale.ROOT));
+            if (pending == null) {
+                return;
+            }
+            int applied = 0;
+            for (KeepRegion region : matchingWorld(registry.snapshot().inWorld(world.getName()), world)) {
+                if (pending.contains(region.getId()) && activeRegions.contains(region.getId())) {
+                    applyTickets(region, true);
+                    applied++;
+                }
+            }
+            plugin.getLogger().info("World " + world.getName() + " loaded, applied deferred tickets for " + applied
+                    + " regions");
+        }
+    }
+
+    void worldUnloading(World world) {
+        synchronized (registry.lock(world.getName())) {
+            ChunkRefCounts counts = ticketCounts.remove(world.getUID());
+            if (counts != null) {
+                releaseTickets(world, counts.keys());
+            }
+            pipeline.forgetWorld(world);
+            int deferred = 0;
+            for (KeepRegion region : matchingWorld(registry.snapshot().inWorld(world.getName()), world)) {
+                if (activeRegions.contains(region.getId())) {
+                    defer(region, true);
+                    deferred++;
+                }
+            }
+            plugin.getLogger().info("World " + world.getName() + " unloading, released tickets and deferred " + deferred
+                    + " regions");
+        }
+    }
+
+    private void defer(KeepRegion region, boolean add) {
+        String key = region.getWorldName().toLowerCase(Locale.ROOT);
+        if (add) {
+            pendingWorlds.computeIfAbsent(key, ignored -> ConcurrentHashMap.newKeySet()).add(region.getId());
+            return;
+        }
+        if (activeRegions.contains(region.getId())) {
+            return;
+        }
+        Set<UUID> pending = pendingWorlds.get(key);
+        if (pending != null && pending.remove(region.getId()) && pending.isEmpty()) {
+            pendingWorlds.remove(key, pending);
         }
     }
 
     private void applyTickets(KeepRegion region, boolean add) {
         World world = resolveWorld(region);
         if (world == null) {
-            plugin.getLogger().warning("World not found for region " + region.getId() + " (" + region.getWorldName() + ")");
+            defer(region, add);
             return;
         }
-        int radius = region.getRadius();
-        for (int x = region.getCenterX() - radius; x <= region.getCenterX() + radius; x++) {
-            for (int z = region.getCenterZ() - radius; z <= region.getCenterZ() + radius; z++) {
-                int chunkX = x;
-                int chunkZ = z;
-                runOnChunkRegion(world, chunkX, chunkZ, () -> {
-                    try {
-                        if (add) {
-                            world.getChunkAt(chunkX, chunkZ).addPluginChunkTicket(plugin);
-                        } else {
-                            world.getChunkAt(chunkX, chunkZ).removePluginChunkTicket(plugin);
-                        }
-                    } catch (Exception ex) {
-                        plugin.getLogger().log(Level.WARNING, "Failed to " + (add ? "add" : "remove") + " ticket for chunk "
-                                + chunkX + "," + chunkZ + " in world " + world.getName(), ex);
+        long started = System.nanoTime();
+        ChunkRefCounts counts = ticketCounts.computeIfAbsent(world.getUID(), key -> new ChunkRefCounts());
+        long[] chunks = region.ticketKeys();
+        int transitions = 0;
+        for (long key : chunks) {
+            if (add ? counts.increment(key) == 1 : counts.decrement(key) == 0) {
+                chunks[transitions++] = key;
+            }
+        }
+        long[] changed = Arrays.copyOf(chunks, transitions);
+        int tasks;
+        if (add) {
+            pipeline.enqueue(world, changed);
+            tasks = changed.length;
+        } else {
+            tasks = releaseTickets(world, changed);
+        }
+        metrics.recordTicketPass(region, System.nanoTime() - started, transitions, tasks);
+    }
+
+    private void applyTicketDiff(List<KeepRegion> gained, List<KeepRegion> lost) {
+        Map<World, List<KeepRegion>> gainedByWorld = byWorld(gained, true);
+        Map<World, List<KeepRegion>> lostByWorld = byWorld(lost, false);
+        Set<World> worlds = new HashSet<>(gainedByWorld.keySet());
+        worlds.addAll(lostByWorld.keySet());
+        for (World world : worlds) {
+            ChunkRefCounts counts = ticketCounts.computeIfAbsent(world.getUID(), key -> new ChunkRefCounts());
+            long[] added = transitions(counts, gainedByWorld.getOrDefault(world, List.of()), true);
+            long[] removed = transitions(counts, lostByWorld.getOrDefault(world, List.of()), false);
+            if (added.length > 0) {
+                pipeline.enqueue(world, added);
+            }
+            if (removed.length > 0) {
+                releaseTickets(world, removed);
+            }
+        }
+    }
+
+    private Map<World, List<KeepRegion>> byWorld(List<KeepRegion> regions, boolean add) {
+        Map<World, List<KeepRegion>> result = new HashMap<>();
+        for (KeepRegion region : regions) {
+            World world = resolveWorld(region);
+            if (world == null) {
+                defer(region, add);
+                continue;
+            }
+            result.computeIfAbsent(world, key -> new ArrayList<>()).add(region);
+        }
+        return result;
+    }
+
+    private static long[] transitions(ChunkRefCounts counts, List<KeepRegion> regions, boolean add) {
+        long[] changed = new long[64];
+        int size = 0;
+        for (KeepRegion region : regions) {
+            for (long key : region.ticketKeys()) {
+                if (add ? counts.increment(key) == 1 : counts.decrement(key) == 0) {
+                    if (size == changed.length) {
+                        changed = Arrays.copyOf(changed, size * 2);
                     }
-                });
+                    changed[size++] = key;
+                }
             }
         }
+        return Arrays.copyOf(changed, size);
+    }
+
+    private int releaseTickets(World world, long[] chunkKeys) {
+        List<long[]> sections = sections(chunkKeys);
+        for (long[] section : sections) {
+            runOnChunkRegion(world, ChunkKey.x(section[0]), ChunkKey.z(section[0]), () -> removeSection(world, section));
+        }
+        return sections.size();
+    }
+
+    private void removeSection(World world, long[] section) {
+        for (long key : section) {
+            if (isChunkWanted(world, key)) {
+                continue;
+            }
+            int x = ChunkKey.x(key);
+            int z = ChunkKey.z(key);
+            try {
+                world.removePluginChunkTicket(x, z, plugin);
+                pipeline.forgetTicket(world, key);
+            } catch (Exception ex) {
+                plugin.getLogger().log(Level.WARNING, "Failed to remove ticket for chunk " + x + "," + z
+                        + " in world " + world.getName(), ex);
+            }
+        }
+    }
+
+    private boolean isChunkWanted(World world, long chunkKey) {
+        ChunkRefCounts counts = ticketCounts.get(world.getUID());
+        return counts != null && counts.get(chunkKey) > 0;
     }
 
     private void runOnChunkRegion(World world, int chunkX, int chunkZ, Runnable action) {
         Bukkit.getServer().getRegionScheduler().execute(plugin, world, chunkX, chunkZ, action);
     }
 
+    public World worldOf(KeepRegion region) {
+        return resolveWorld(region);
+    }
+
+    public boolean isWorldLoaded(KeepRegion region) {
+        return resolveWorld(region) != null;
+    }
+
     private World resolveWorld(KeepRegion region) {
-        UUID worldUuid = region.getWorldUuid();
-        if (worldUuid != null) {
-            World world = Bukkit.getWorld(worldUuid);
-            if (world != null) {
-                return world;
+        return worlds.resolve(region);
+    }
+
+    private List<KeepRegion> matchingWorld(List<KeepRegion> candidates, World world) {
+        List<KeepRegion> result = new ArrayList<>(candidates.size());
+        for (KeepRegion region : candidates) {
+            if (worldMatches(region, world)) {
+                result.add(region);
             }
         }
-        return Bukkit.getWorld(region.getWorldName());
+        return result;
     }
 
     private boolean worldMatches(KeepRegion region, World world) {
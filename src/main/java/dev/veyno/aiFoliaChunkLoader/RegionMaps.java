@@ -0,0 +1,160 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+public final class RegionMaps {
+    public static final List<String> KEYS = List.of("id", "world", "worldUuid", "centerX", "centerZ", "radius", "createdBy",
+            "createdById", "createdAt", "priority", "policy", "mode", "shape", "points", "mask");
+
+    private RegionMaps() {
+    }
+
+    public static Map<String, Object> toMap(KeepRegion region) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("id", region.getId().toString());
+        entry.put("world", region.getWorldName());
+        if (region.getWorldUuid() != null) {
+            entry.put("worldUuid", region.getWorldUuid().toString());
+        }
+        entry.put("centerX", region.getCenterX());
+        entry.put("centerZ", region.getCenterZ());
+        entry.put("radius", region.getRadius());
+        entry.put("createdBy", region.getCreatedBy());
+        if (region.getCreatedById() != null) {
+            entry.put("createdById", region.getCreatedById().toString());
+        }
+        if (region.getCreatedAt() != null) {
+            entry.put("createdAt", region.getCreatedAt().toString());
+        }
+        if (region.getPriority() != 0) {
+            entry.put("priority", region.getPriority());
+        }
+        if (!region.getPolicy().isAlways()) {
+            entry.put("policy", region.getPolicy().toSpec());
+        }
+        if (region.getTicketMode() != TicketMode.FULL) {
+            entry.put("mode", region.getTicketMode().id());
+        }
+        RegionShape shape = region.getShape();
+        if (shape.getType() != RegionShape.Type.SQUARE) {
+            entry.put("shape", shape.getType().name().toLowerCase(Locale.ROOT));
+            int[] points = shape.getPoints();
+            if (points.length > 0) {
+                List<Integer> values = new ArrayList<>(points.length);
+                for (int point : points) {
+                    values.add(point);
+                }
+                entry.put("points", values);
+            }
+            long[] mask = shape.getMask();
+            if (mask.length > 0) {
+                ByteBuffer bytes = ByteBuffer.allocate(mask.length * 8);
+                bytes.asLongBuffer().put(mask);
+                entry.put("mask", Base64.getEncoder().encodeToString(bytes.array()));
+            }
+        }
+        return entry;
+    }
+
+    public static KeepRegion fromMap(Map<?, ?> map, boolean generateMissingId) {
+        String idRaw = valueOf(map.get("id"));
+        UUID id;
+        if (idRaw == null || idRaw.isEmpty()) {
+            if (!generateMissingId) {
+                throw new IllegalArgumentException("Region entry missing id");
+            }
+            id = UUID.randomUUID();
+        } else {
+            id = UUID.fromString(idRaw);
+        }
+        String worldName = valueOf(map.get("world"));
+        if (worldName == null || worldName.isEmpty()) {
+            throw new IllegalArgumentException("Region entry missing world");
+        }
+        UUID worldUuid = uuidOf(map.get("worldUuid"));
+        int centerX = intValue(map.get("centerX"));
+        int centerZ = intValue(map.get("centerZ"));
+        int radius = intValue(map.get("radius"));
+        String createdBy = valueOf(map.get("createdBy"));
+        if (createdBy != null && createdBy.isEmpty()) {
+            createdBy = null;
+        }
+        UUID createdById = uuidOf(map.get("createdById"));
+        Instant createdAt = null;
+        String createdAtRaw = valueOf(map.get("createdAt"));
+        if (createdAtRaw != null && !createdAtRaw.isEmpty()) {
+            createdAt = Instant.parse(createdAtRaw);
+        }
+        int priority = intValue(map.get("priority"));
+        RegionShape shape = shapeOf(map);
+        ActivationPolicy policy = ActivationPolicy.parse(valueOf(map.get("policy")));
+        TicketMode ticketMode = TicketMode.parse(valueOf(map.get("mode")));
+        return KeepRegion.builder(id, worldName, centerX, centerZ).worldUuid(worldUuid).radius(radius)
+                .createdBy(createdBy).createdById(createdById).createdAt(createdAt).priority(priority).shape(shape)
+                .policy(policy).ticketMode(ticketMode).build();
+    }
+
+    private static RegionShape shapeOf(Map<?, ?> map) {
+        String shapeRaw = valueOf(map.get("shape"));
+        if (shapeRaw == null || shapeRaw.isEmpty()) {
+            return RegionShape.SQUARE;
+        }
+        RegionShape.Type type = RegionShape.Type.valueOf(shapeRaw.toUpperCase(Locale.ROOT));
+        int[] points = new int[0];
+        Object pointsRaw = map.get("points");
+        if (pointsRaw instanceof List<?> rawPoints) {
+            points = new int[rawPoints.size()];
+            for (int i = 0; i < points.length; i++) {
+                points[i] = intValue(rawPoints.get(i));
+            }
+        } else if (pointsRaw != null && !pointsRaw.toString().isEmpty()) {
+            String[] parts = pointsRaw.toString().split(";");
+            points = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                points[i] = Integer.parseInt(parts[i].trim());
+            }
+        }
+        long[] mask = new long[0];
+        String maskRaw = valueOf(map.get("mask"));
+        if (maskRaw != null && !maskRaw.isEmpty()) {
+            ByteBuffer bytes = ByteBuffer.wrap(Base64.getDecoder().decode(maskRaw));
+            mask = new long[bytes.remaining() / 8];
+            bytes.asLongBuffer().get(mask);
+        }
+        return RegionShape.of(type, points, mask);
+    }
+
+    private static UUID uuidOf(Object raw) {
+        String value = valueOf(raw);
+        return value == null || value.isEmpty() ? null : UUID.fromString(value);
+    }
+
+    private static String valueOf(Object raw) {
+        if (raw == null) {
+            return null;
+        }
+        return raw.toString();
+    }
+
+    private static int intValue(Object raw) {
+        if (raw instanceof Number number) {
+            return number.intValue();
+        }
+        if (raw != null) {
+            try {
+                return Integer.parseInt(raw.toString().trim());
+            } catch (NumberFormatException ignored) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+}
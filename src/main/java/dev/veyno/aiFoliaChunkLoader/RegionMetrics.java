@@ -0,0 +1,226 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+public final class RegionMetrics {
+    private final JavaPlugin plugin;
+    private final Map<UUID, Counters> counters = new ConcurrentHashMap<>();
+    private final boolean countEntities;
+    private final long sampleIntervalSeconds;
+    private final long writeIntervalSeconds;
+    private final File metricsFile;
+    private ScheduledTask sampleTask;
+    private ScheduledTask writeTask;
+
+    public RegionMetrics(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.countEntities = plugin.getConfig().getBoolean("metrics.count-entities", true);
+        this.sampleIntervalSeconds = plugin.getConfig().getLong("metrics.sample-interval-seconds", 60L);
+        this.writeIntervalSeconds = plugin.getConfig().getLong("metrics.write-interval-seconds", 300L);
+        this.metricsFile = new File(plugin.getDataFolder(), "metrics.yml");
+    }
+
+    public void start(RegionManager manager) {
+        if (sampleIntervalSeconds > 0L) {
+            sampleTask = Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, task -> sample(manager),
+                    sampleIntervalSeconds * 20L, sampleIntervalSeconds * 20L);
+        }
+        if (writeIntervalSeconds > 0L) {
+            writeTask = Bukkit.getAsyncScheduler().runAtFixedRate(plugin, task -> write(manager.getRegions()),
+                    writeIntervalSeconds, writeIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    public void stop() {
+        if (sampleTask != null) {
+            sampleTask.cancel();
+            sampleTask = null;
+        }
+        if (writeTask != null) {
+            writeTask.cancel();
+            writeTask = null;
+        }
+    }
+
+    public void recordTicketPass(KeepRegion region, long bookkeepingNanos, int ticketChanges, int tasks) {
+        Counters entry = counters(region);
+        entry.bookkeepingNanos.add(bookkeepingNanos);
+        entry.ticketPasses.increment();
+        entry.ticketChanges.add(ticketChanges);
+        entry.tasksQueued.add(tasks);
+    }
+
+    public void forget(KeepRegion region) {
+        counters.remove(region.getId());
+    }
+
+    public Snapshot snapshot(KeepRegion region) {
+        Counters entry = counters.get(region.getId());
+        if (entry == null) {
+            return new Snapshot(0L, 0L, 0L, 0L, null);
+        }
+        return new Snapshot(entry.bookkeepingNanos.sum(), entry.ticketPasses.sum(), entry.ticketChanges.sum(),
+                entry.tasksQueued.sum(), entry.sample);
+    }
+
+    private Counters counters(KeepRegion region) {
+        return counters.computeIfAbsent(region.getId(), key -> new Counters());
+    }
+
+    private void sample(RegionManager manager) {
+        for (KeepRegion region : manager.getRegions()) {
+            if (!manager.isActive(region)) {
+                continue;
+            }
+            World world = manager.worldOf(region);
+            if (world == null) {
+                continue;
+            }
+            Sample sample = new Sample(Instant.now());
+            counters(region).sample = sample;
+            for (long[] section : manager.sections(region.chunkKeys())) {
+                Bukkit.getRegionScheduler().execute(plugin, world, ChunkKey.x(section[0]), ChunkKey.z(section[0]),
+                        () -> sampleSection(world, section, sample));
+            }
+        }
+    }
+
+    private void sampleSection(World world, long[] section, Sample sample) {
+        for (long key : section) {
+            int x = ChunkKey.x(key);
+            int z = ChunkKey.z(key);
+            if (!world.isChunkLoaded(x, z)) {
+                continue;
+            }
+            sample.loadedChunks.increment();
+            if (!countEntities) {
+                continue;
+            }
+            Chunk chunk = world.getChunkAt(x, z);
+            sample.entities.add(chunk.getEntities().length);
+            sample.tileEntities.add(chunk.getTileEntities(false).length);
+        }
+    }
+
+    private void write(List<KeepRegion> regions) {
+        YamlConfiguration configuration = new YamlConfiguration();
+        configuration.set("generatedAt", Instant.now().toString());
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (KeepRegion region : regions) {
+            Snapshot snapshot = snapshot(region);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", region.getId().toString());
+            entry.put("world", region.getWorldName());
+            entry.put("chunks", region.chunkCount());
+            entry.put("bookkeepingMillis", snapshot.getBookkeepingNanos() / 1_000_000.0D);
+            entry.put("ticketPasses", snapshot.getTicketPasses());
+            entry.put("ticketChanges", snapshot.getTicketChanges());
+            entry.put("tasksQueued", snapshot.getTasksQueued());
+            if (snapshot.getSample() != null) {
+                entry.put("loadedChunks", snapshot.getLoadedChunks());
+                entry.put("entities", snapshot.getEntities());
+                entry.put("tileEntities", snapshot.getTileEntities());
+                entry.put("sampledAt", snapshot.getSample().getSampledAt().toString());
+            }
+            entries.add(entry);
+        }
+        configuration.set("regions", entries);
+        try {
+            Files.writeString(metricsFile.toPath(), configuration.saveToString(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            plugin.getLogger().log(Level.WARNING, "Failed to write metrics.yml", ex);
+        }
+    }
+
+    public static final class Snapshot {
+        private final long bookkeepingNanos;
+        private final long ticketPasses;
+        private final long ticketChanges;
+        private final long tasksQueued;
+        private final Sample sample;
+
+        private Snapshot(long bookkeepingNanos, long ticketPasses, long ticketChanges, long tasksQueued,
+                         Sample sample) {
+            this.bookkeepingNanos = bookkeepingNanos;
+            this.ticketPasses = ticketPasses;
+            this.ticketChanges = ticketChanges;
+            this.tasksQueued = tasksQueued;
+            this.sample = sample;
+        }
+
+        public long getBookkeepingNanos() {
+            return bookkeepingNanos;
+        }
+
+        public long getTicketPasses() {
+            return ticketPasses;
+        }
+
+        public long getTicketChanges() {
+            return ticketChanges;
+        }
+
+        public long getTasksQueued() {
+            return tasksQueued;
+        }
+
+        public Sample getSample() {
+            return sample;
+        }
+
+        public long getLoadedChunks() {
+            return sample == null ? 0L : sample.loadedChunks.sum();
+        }
+
+        public long getEntities() {
+            return sample == null ? 0L : sample.entities.sum();
+        }
+
+        public long getTileEntities() {
+            return sample == null ? 0L : sample.tileEntities.sum();
+        }
+    }
+
+    public static final class Sample {
+        private final Instant sampledAt;
+        private final LongAdder loadedChunks = new LongAdder();
+        private final LongAdder entities = new LongAdder();
+        private final LongAdder tileEntities = new LongAdder();
+
+        private Sample(Instant sampledAt) {
+            this.sampledAt = sampledAt;
+        }
+
+        public Instant getSampledAt() {
+            return sampledAt;
+        }
+    }
+
+    private static final class Counters {
+        private final LongAdder bookkeepingNanos = new LongAdder();
+        private final LongAdder ticketPasses = new LongAdder();
+        private final LongAdder ticketChanges = new LongAdder();
+        private final LongAdder tasksQueued = new LongAdder();
+        private volatile Sample sample;
+    }
+}
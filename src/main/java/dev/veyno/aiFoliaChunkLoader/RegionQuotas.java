@@ -0,0 +1,185 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.PermissionAttachmentInfo;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public final class RegionQuotas {
+    private static final String LIMIT_PERMISSION = "keepregion.limit.";
+
+    private final long defaultChunks;
+    private final int defaultRegions;
+    private final long maxChunksTotal;
+    private final int maxRegionsTotal;
+    private final Map<String, Long> worldCaps = new HashMap<>();
+    private final Map<String, Usage> byOwner = new HashMap<>();
+    private final Map<String, Usage> byWorld = new HashMap<>();
+    private final Usage total = new Usage();
+
+    public RegionQuotas(JavaPlugin plugin) {
+        this.defaultChunks = plugin.getConfig().getLong("quotas.default-chunks", 2048L);
+        this.defaultRegions = plugin.getConfig().getInt("quotas.default-regions", 0);
+        this.maxChunksTotal = plugin.getConfig().getLong("quotas.max-chunks-total", 0L);
+        this.maxRegionsTotal = plugin.getConfig().getInt("limits.max-regions-total", 0);
+        ConfigurationSection worlds = plugin.getConfig().getConfigurationSection("quotas.worlds");
+        if (worlds != null) {
+            for (String world : worlds.getKeys(false)) {
+                worldCaps.put(world.toLowerCase(Locale.ROOT), worlds.getLong(world));
+            }
+        }
+    }
+
+    public Limits limitsFor(Player player) {
+        if (player.hasPermission("keepregion.quota.bypass")) {
+            return Limits.UNLIMITED;
+        }
+        long chunks = -1L;
+        for (PermissionAttachmentInfo info : player.getEffectivePermissions()) {
+            String permission = info.getPermission();
+            if (info.getValue() && permission.startsWith(LIMIT_PERMISSION)) {
+                chunks = Math.max(chunks, parseLimit(permission.substring(LIMIT_PERMISSION.length())));
+            }
+        }
+        return new Limits(RegionIndex.ownerKey(player.getUniqueId(), null), RegionIndex.ownerKey(null, player.getName()),
+                chunks < 0L ? defaultChunks : chunks, defaultRegions, false);
+    }
+
+    public synchronized Result tryReserve(KeepRegion region, Limits limits) {
+        long chunks = region.chunkCount();
+        if (!limits.bypass) {
+            if (limits.maxRegions > 0 && usedRegions(limits) + 1 > limits.maxRegions) {
+                return Result.PLAYER_REGIONS;
+            }
+            if (limits.maxChunks > 0L && usedChunks(limits) + chunks > limits.maxChunks) {
+                return Result.PLAYER_CHUNKS;
+            }
+            Long worldCap = worldCaps.get(worldKey(region));
+            Usage world = byWorld.get(worldKey(region));
+            if (worldCap != null && worldCap > 0L && (world == null ? 0L : world.chunks) + chunks > worldCap) {
+                return Result.WORLD_CHUNKS;
+            }
+            if (maxChunksTotal > 0L && total.chunks + chunks > maxChunksTotal) {
+                return Result.TOTAL_CHUNKS;
+            }
+            if (maxRegionsTotal > 0 && total.regions + 1 > maxRegionsTotal) {
+                return Result.TOTAL_REGIONS;
+            }
+        }
+        add(region);
+        return Result.OK;
+    }
+
+    public synchronized void add(KeepRegion region) {
+        apply(region, 1);
+    }
+
+    public synchronized void remove(KeepRegion region) {
+        apply(region, -1);
+    }
+
+    public synchronized void replace(KeepRegion current, KeepRegion updated) {
+        apply(current, -1);
+        apply(updated, 1);
+    }
+
+    public synchronized void reset(Collection<KeepRegion> regions) {
+        byOwner.clear();
+        byWorld.clear();
+        total.regions = 0;
+        total.chunks = 0L;
+        for (KeepRegion region : regions) {
+            apply(region, 1);
+        }
+    }
+
+    public synchronized long usedChunks(Limits limits) {
+        Usage usage = byOwner.get(limits.owner);
+        Usage legacy = byOwner.get(limits.legacyOwner);
+        return (usage == null ? 0L : usage.chunks) + (legacy == null ? 0L : legacy.chunks);
+    }
+
+    private int usedRegions(Limits limits) {
+        Usage usage = byOwner.get(limits.owner);
+        Usage legacy = byOwner.get(limits.legacyOwner);
+        return (usage == null ? 0 : usage.regions) + (legacy == null ? 0 : legacy.regions);
+    }
+
+    private void apply(KeepRegion region, int sign) {
+        long chunks = (long) region.chunkCount() * sign;
+        String owner = RegionIndex.ownerKey(region.getCreatedById(), region.getCreatedBy());
+        if (owner != null) {
+            update(byOwner, owner, sign, chunks);
+        }
+        update(byWorld, worldKey(region), sign, chunks);
+        total.regions += sign;
+        total.chunks += chunks;
+    }
+
+    private static <K> void update(Map<K, Usage> map, K key, int regions, long chunks) {
+        Usage usage = map.computeIfAbsent(key, ignored -> new Usage());
+        usage.regions += regions;
+        usage.chunks += chunks;
+        if (usage.regions <= 0) {
+            map.remove(key);
+        }
+    }
+
+    private static long parseLimit(String raw) {
+        try {
+            return Long.parseLong(raw);
+        } catch (NumberFormatException ignored) {
+            return -1L;
+        }
+    }
+
+    private static String worldKey(KeepRegion region) {
+        return region.getWorldName().toLowerCase(Locale.ROOT);
+    }
+
+    public enum Result {
+        OK,
+        DUPLICATE,
+        PLAYER_REGIONS,
+        PLAYER_CHUNKS,
+        WORLD_CHUNKS,
+        TOTAL_CHUNKS,
+        TOTAL_REGIONS
+    }
+
+    public static final class Limits {
+        public static final Limits UNLIMITED = new Limits(null, null, 0L, 0, true);
+
+        private final String owner;
+        private final String legacyOwner;
+        private final long maxChunks;
+        private final int maxRegions;
+        private final boolean bypass;
+
+        private Limits(String owner, String legacyOwner, long maxChunks, int maxRegions, boolean bypass) {
+            this.owner = owner;
+            this.legacyOwner = legacyOwner;
+            this.maxChunks = maxChunks;
+            this.maxRegions = maxRegions;
+            this.bypass = bypass;
+        }
+
+        public long getMaxChunks() {
+            return maxChunks;
+        }
+
+        public boolean isBypass() {
+            return bypass;
+        }
+    }
+
+    private static final class Usage {
+        private int regions;
+        private long chunks;
+    }
+}
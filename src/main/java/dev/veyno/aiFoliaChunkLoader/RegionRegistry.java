@@ -0,0 +1,100 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+public final class RegionRegistry {
+    private final AtomicReference<RegionIndex> index = new AtomicReference<>(RegionIndex.EMPTY);
+    private final Map<String, Object> worldLocks = new ConcurrentHashMap<>();
+
+    public RegionIndex snapshot() {
+        return index.get();
+    }
+
+    public void reset(Collection<KeepRegion> regions) {
+        index.set(RegionIndex.of(regions));
+    }
+
+    public Object lock(String worldName) {
+        return worldLocks.computeIfAbsent(worldKey(worldName), key -> new Object());
+    }
+
+    public <T> T withWorlds(Collection<String> worldNames, Supplier<T> action) {
+        TreeSet<String> keys = new TreeSet<>();
+        for (String worldName : worldNames) {
+            keys.add(worldKey(worldName));
+        }
+        return withLocks(new ArrayList<>(keys), 0, action);
+    }
+
+    public boolean add(KeepRegion region) {
+        synchronized (lock(region.getWorldName())) {
+            RegionIndex current = index.get();
+            if (current.containsKey(region) || !current.byIdPrefix(region.getId().toString(), 1).isEmpty()) {
+                return false;
+            }
+            index.updateAndGet(snapshot -> snapshot.plus(region));
+            return true;
+        }
+    }
+
+    public boolean remove(KeepRegion region) {
+        synchronized (lock(region.getWorldName())) {
+            RegionIndex current = index.get();
+            if (!current.contains(region)) {
+                return false;
+            }
+            index.updateAndGet(snapshot -> snapshot.minus(region));
+            return true;
+        }
+    }
+
+    public boolean replace(KeepRegion current, KeepRegion updated) {
+        if (!current.getWorldName().equalsIgnoreCase(updated.getWorldName())) {
+            throw new IllegalArgumentException("Region world must not change");
+        }
+        synchronized (lock(current.getWorldName())) {
+            if (!index.get().contains(current)) {
+                return false;
+            }
+            index.updateAndGet(snapshot -> snapshot.minus(current).plus(updated));
+            return true;
+        }
+    }
+
+    public void apply(Collection<KeepRegion> removed, Collection<KeepRegion> added) {
+        for (KeepRegion region : removed) {
+            checkLocked(region.getWorldName());
+        }
+        for (KeepRegion region : added) {
+            checkLocked(region.getWorldName());
+        }
+        index.updateAndGet(snapshot -> snapshot.apply(removed, added));
+    }
+
+    private void checkLocked(String worldName) {
+        if (!Thread.holdsLock(lock(worldName))) {
+            throw new IllegalStateException("Lock for world " + worldName + " is not held");
+        }
+    }
+
+    private <T> T withLocks(List<String> keys, int from, Supplier<T> action) {
+        if (from == keys.size()) {
+            return action.get();
+        }
+        synchronized (lock(keys.get(from))) {
+            return withLocks(keys, from + 1, action);
+        }
+    }
+
+    private static String worldKey(String worldName) {
+        return worldName.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,157 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+public final class RegionShape {
+    public static final RegionShape SQUARE = new RegionShape(Type.SQUARE, new int[0], new long[0]);
+    public static final RegionShape CIRCLE = new RegionShape(Type.CIRCLE, new int[0], new long[0]);
+
+    private final Type type;
+    private final int[] points;
+    private final long[] mask;
+
+    private RegionShape(Type type, int[] points, long[] mask) {
+        this.type = type;
+        this.points = points;
+        this.mask = mask;
+    }
+
+    public static RegionShape rect(int minDx, int minDz, int maxDx, int maxDz) {
+        return new RegionShape(Type.RECT, new int[]{Math.min(minDx, maxDx), Math.min(minDz, maxDz),
+                Math.max(minDx, maxDx), Math.max(minDz, maxDz)}, new long[0]);
+    }
+
+    public static RegionShape polygon(int[] vertices) {
+        if (vertices.length < 6 || vertices.length % 2 != 0) {
+            throw new IllegalArgumentException("Polygon needs at least three vertices");
+        }
+        return new RegionShape(Type.POLYGON, vertices.clone(), new long[0]);
+    }
+
+    public static RegionShape mask(long[] bits) {
+        return new RegionShape(Type.MASK, new int[0], bits.clone());
+    }
+
+    public static RegionShape of(Type type, int[] points, long[] mask) {
+        return switch (type) {
+            case SQUARE -> SQUARE;
+            case CIRCLE -> CIRCLE;
+            case RECT -> {
+                if (points.length != 4) {
+                    throw new IllegalArgumentException("Rectangle needs four bounds");
+                }
+                yield rect(points[0], points[1], points[2], points[3]);
+            }
+            case POLYGON -> polygon(points);
+            case MASK -> mask(mask);
+        };
+    }
+
+    public static RegionShape maskOf(long[] chunkKeys, int centerX, int centerZ, int radius) {
+        int side = radius * 2 + 1;
+        long[] bits = new long[(side * side + 63) >>> 6];
+        for (long key : chunkKeys) {
+            int dx = ChunkKey.x(key) - centerX;
+            int dz = ChunkKey.z(key) - centerZ;
+            if (Math.abs(dx) > radius || Math.abs(dz) > radius) {
+                throw new IllegalArgumentException("Chunk outside of mask bounds");
+            }
+            int bit = (dz + radius) * side + dx + radius;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+        return new RegionShape(Type.MASK, new int[0], bits);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int[] getPoints() {
+        return points.clone();
+    }
+
+    public long[] getMask() {
+        return mask.clone();
+    }
+
+    public int boundingRadius() {
+        int radius = 0;
+        for (int point : points) {
+            radius = Math.max(radius, Math.abs(point));
+        }
+        return radius;
+    }
+
+    public boolean contains(int dx, int dz, int radius) {
+        if (Math.abs(dx) > radius || Math.abs(dz) > radius) {
+            return false;
+        }
+        return switch (type) {
+            case SQUARE -> true;
+            case CIRCLE -> (long) dx * dx + (long) dz * dz <= (long) radius * radius + radius;
+            case RECT -> dx >= points[0] && dz >= points[1] && dx <= points[2] && dz <= points[3];
+            case POLYGON -> polygonContains(dx, dz);
+            case MASK -> {
+                int side = radius * 2 + 1;
+                int bit = (dz + radius) * side + dx + radius;
+                yield (bit >>> 6) < mask.length && (mask[bit >>> 6] & (1L << bit)) != 0L;
+            }
+        };
+    }
+
+    public String describe() {
+        return switch (type) {
+            case RECT -> "rect " + (points[2] - points[0] + 1) + "x" + (points[3] - points[1] + 1);
+            case POLYGON -> "polygon(" + points.length / 2 + ")";
+            default -> type.name().toLowerCase(Locale.ROOT);
+        };
+    }
+
+    private boolean polygonContains(int dx, int dz) {
+        boolean inside = false;
+        int count = points.length / 2;
+        for (int i = 0, j = count - 1; i < count; j = i++) {
+            long ax = points[i * 2];
+            long az = points[i * 2 + 1];
+            long bx = points[j * 2];
+            long bz = points[j * 2 + 1];
+            long cross = (bx - ax) * (dz - az) - (bz - az) * (dx - ax);
+            if (cross == 0L && dx >= Math.min(ax, bx) && dx <= Math.max(ax, bx)
+                    && dz >= Math.min(az, bz) && dz <= Math.max(az, bz)) {
+                return true;
+            }
+            if ((az > dz) != (bz > dz)) {
+                double crossingX = ax + (double) (dz - az) * (bx - ax) / (bz - az);
+                if (dx < crossingX) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof RegionShape shape)) {
+            return false;
+        }
+        return type == shape.type && Arrays.equals(points, shape.points) && Arrays.equals(mask, shape.mask);
+    }
+
+    @Override
+    public int hashCode() {
+        return (type.hashCode() * 31 + Arrays.hashCode(points)) * 31 + Arrays.hashCode(mask);
+    }
+
+    public enum Type {
+        SQUARE,
+        CIRCLE,
+        RECT,
+        POLYGON,
+        MASK
+    }
+}
@@ -0,0 +1,192 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class RegionTransfer {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    private RegionTransfer() {
+    }
+
+    public static Path resolve(Path folder, String fileName) {
+        Path base = folder.toAbsolutePath().normalize();
+        Path target = base.resolve(fileName).normalize();
+        if (!target.startsWith(base) || target.equals(base)) {
+            throw new IllegalArgumentException("File must stay inside " + base);
+        }
+        Format.of(target);
+        return target;
+    }
+
+    public static List<KeepRegion> read(Path file, Logger logger) throws IOException {
+        List<Map<?, ?>> entries = switch (Format.of(file)) {
+            case JSON -> readJson(file);
+            case CSV -> readCsv(file);
+        };
+        List<KeepRegion> regions = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            try {
+                regions.add(RegionMaps.fromMap(entries.get(i), true));
+            } catch (Exception ex) {
+                logger.log(Level.WARNING, "Skipping invalid region entry " + i + " in " + file.getFileName(), ex);
+            }
+        }
+        return regions;
+    }
+
+    public static void write(Path file, List<KeepRegion> regions) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (Format.of(file) == Format.JSON) {
+                List<Map<String, Object>> entries = new ArrayList<>(regions.size());
+                for (KeepRegion region : regions) {
+                    entries.add(RegionMaps.toMap(region));
+                }
+                GSON.toJson(entries, writer);
+                return;
+            }
+            writer.write(String.join(",", RegionMaps.KEYS));
+            writer.newLine();
+            for (KeepRegion region : regions) {
+                Map<String, Object> entry = RegionMaps.toMap(region);
+                StringBuilder line = new StringBuilder();
+                for (int i = 0; i < RegionMaps.KEYS.size(); i++) {
+                    if (i > 0) {
+                        line.append(',');
+                    }
+                    line.append(csvValue(entry.get(RegionMaps.KEYS.get(i))));
+                }
+                writer.write(line.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    private static List<Map<?, ?>> readJson(Path file) throws IOException {
+        Object parsed;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            parsed = GSON.fromJson(reader, Object.class);
+        } catch (JsonParseException ex) {
+            throw new IOException("Invalid JSON in " + file.getFileName(), ex);
+        }
+        if (parsed instanceof Map<?, ?> root && root.get("regions") != null) {
+            parsed = root.get("regions");
+        }
+        if (!(parsed instanceof List<?> list)) {
+            throw new IOException("Expected a JSON array of regions in " + file.getFileName());
+        }
+        List<Map<?, ?>> entries = new ArrayList<>(list.size());
+        for (Object entry : list) {
+            entries.add(entry instanceof Map<?, ?> map ? map : Map.of());
+        }
+        return entries;
+    }
+
+    private static List<Map<?, ?>> readCsv(Path file) throws IOException {
+        List<Map<?, ?>> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return entries;
+            }
+            List<String> columns = splitCsv(header);
+            for (String line; (line = reader.readLine()) != null; ) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> values = splitCsv(line);
+                Map<String, Object> entry = new LinkedHashMap<>();
+                for (int i = 0; i < columns.size() && i < values.size(); i++) {
+                    if (!values.get(i).isEmpty()) {
+                        entry.put(columns.get(i).trim(), values.get(i));
+                    }
+                }
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text;
+        if (value instanceof List<?> list) {
+            StringBuilder joined = new StringBuilder();
+            for (Object item : list) {
+                if (!joined.isEmpty()) {
+                    joined.append(';');
+                }
+                joined.append(item);
+            }
+            text = joined.toString();
+        } else {
+            text = value.toString();
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private enum Format {
+        JSON,
+        CSV;
+
+        private static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".json")) {
+                return JSON;
+            }
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            throw new IllegalArgumentException("Unsupported file type: " + file.getFileName());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+public final class RegionWriter {
+    private static final long MAX_RETRY_MILLIS = 60_000L;
+
+    private final JavaPlugin plugin;
+    private final RegionStore store;
+    private final Supplier<List<KeepRegion>> snapshot;
+    private final long debounceMillis;
+    private final ScheduledThreadPoolExecutor executor;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final ConcurrentLinkedQueue<List<RegionChange>> changes = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private boolean fullSave;
+    private int failures;
+
+    public RegionWriter(JavaPlugin plugin, RegionStore store, Supplier<List<KeepRegion>> snapshot) {
+        this.plugin = plugin;
+        this.store = store;
+        this.snapshot = snapshot;
+        this.debounceMillis = Math.max(0L, plugin.getConfig().getLong("storage.save-delay-ms", 2000L));
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, plugin.getName() + "-RegionWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    public void record(RegionChange change) {
+        changes.add(List.of(change));
+        markDirty();
+    }
+
+    public void recordAll(List<RegionChange> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        changes.add(List.copyOf(batch));
+        markDirty();
+    }
+
+    public void markDirty() {
+        dirty.set(true);
+        schedule(debounceMillis);
+    }
+
+    private void schedule(long delayMillis) {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10L, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Region writer did not finish in time");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        write();
+    }
+
+    private void flush() {
+        scheduled.set(false);
+        write();
+    }
+
+    private synchronized void write() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        List<RegionChange> batch = new ArrayList<>();
+        for (List<RegionChange> pending; (pending = changes.poll()) != null; ) {
+            batch.addAll(pending);
+        }
+        try {
+            if (fullSave || batch.isEmpty()) {
+                store.save(snapshot.get());
+            } else {
+                store.apply(batch, snapshot);
+            }
+            fullSave = false;
+            failures = 0;
+        } catch (Exception ex) {
+            fullSave = true;
+            dirty.set(true);
+            long retryMillis = Math.min(MAX_RETRY_MILLIS, Math.max(1000L, debounceMillis) << Math.min(failures++, 6));
+            plugin.getLogger().log(Level.SEVERE, "Failed to persist regions, retrying with a full save in "
+                    + retryMillis + " ms", ex);
+            if (!executor.isShutdown()) {
+                schedule(retryMillis);
+            }
+        }
+    }
+}
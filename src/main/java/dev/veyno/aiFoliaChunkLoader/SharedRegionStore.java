@@ -0,0 +1,417 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class SharedRegionStore implements RegionStore {
+    private static final String REGIONS_KEY = "regions";
+    private static final String VERSION_KEY = "version";
+    private static final String REV_KEY = "rev";
+    private static final long TIMESTAMP_SLACK_MILLIS = 2000L;
+
+    private final String name;
+    private final Logger logger;
+    private final Path directory;
+    private final Path regionsFile;
+    private final Path lockFile;
+    private final Set<String> worldNames = new HashSet<>();
+    private final Predicate<KeepRegion> worldLoaded;
+    private final long pollMillis;
+    private final Map<UUID, Long> knownRevs = new HashMap<>();
+    private long knownVersion = -1L;
+    private long knownModified = -1L;
+    private long knownSize = -1L;
+    private WatchService watchService;
+    private Thread watcher;
+    private volatile Listener listener;
+    private volatile boolean running;
+
+    public SharedRegionStore(JavaPlugin plugin, Predicate<KeepRegion> worldLoaded) {
+        this(plugin.getName(), plugin.getLogger(), sharedDirectory(plugin),
+                plugin.getConfig().getStringList("storage.shared.worlds"), worldLoaded,
+                Math.max(1L, plugin.getConfig().getLong("storage.shared.poll-seconds", 5L)) * 1000L);
+    }
+
+    SharedRegionStore(String name, Logger logger, Path directory, List<String> worlds,
+                      Predicate<KeepRegion> worldLoaded, long pollMillis) {
+        this.name = name;
+        this.logger = logger;
+        this.directory = directory;
+        this.regionsFile = directory.resolve("regions.yml");
+        this.lockFile = directory.resolve("regions.lock");
+        for (String world : worlds) {
+            worldNames.add(world.toLowerCase(Locale.ROOT));
+        }
+        this.worldLoaded = worldLoaded;
+        this.pollMillis = pollMillis;
+    }
+
+    private static Path sharedDirectory(JavaPlugin plugin) {
+        String path = plugin.getConfig().getString("storage.shared.path", "");
+        return path == null || path.isBlank() ? plugin.getDataFolder().toPath().resolve("shared") : Path.of(path);
+    }
+
+    @Override
+    public synchronized List<KeepRegion> load() {
+        try {
+            Snapshot snapshot = locked(true, this::read);
+            List<KeepRegion> regions = new ArrayList<>();
+            for (Entry entry : snapshot.entries.values()) {
+                if (isLocal(entry.region)) {
+                    regions.add(entry.region);
+                    knownRevs.put(entry.region.getId(), entry.rev);
+                }
+            }
+            knownVersion = snapshot.version;
+            logger.info("Loaded " + regions.size() + " of " + snapshot.entries.size() + " shared regions (version "
+                    + snapshot.version + ") from " + regionsFile);
+            return regions;
+        } catch (IOException ex) {
+            logger.log(Level.SEVERE, "Failed to read shared regions from " + regionsFile, ex);
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public synchronized void save(List<KeepRegion> regions) throws IOException {
+        locked(false, () -> {
+            Snapshot snapshot = read();
+            long next = snapshot.version + 1L;
+            Set<UUID> ids = new HashSet<>();
+            for (KeepRegion region : regions) {
+                ids.add(region.getId());
+            }
+            snapshot.entries.values().removeIf(entry -> knownRevs.containsKey(entry.region.getId())
+                    && !ids.contains(entry.region.getId()));
+            for (KeepRegion region : regions) {
+                snapshot.entries.put(region.getId(), new Entry(region, next));
+                knownRevs.put(region.getId(), next);
+            }
+            knownRevs.keySet().retainAll(ids);
+            write(snapshot, next);
+            return null;
+        });
+    }
+
+    @Override
+    public void apply(List<RegionChange> changes, Supplier<List<KeepRegion>> snapshotSupplier) throws IOException {
+        Delta conflicts = applyChanges(changes);
+        Listener current = listener;
+        if (!conflicts.isEmpty() && current != null) {
+            current.onChange(conflicts.upserts, conflicts.removed);
+        }
+    }
+
+    private synchronized Delta applyChanges(List<RegionChange> changes) throws IOException {
+        return locked(false, () -> {
+            Snapshot snapshot = read();
+            long next = snapshot.version + 1L;
+            Delta conflicts = new Delta();
+            for (RegionChange change : changes) {
+                UUID id = change.getRegion().getId();
+                Entry existing = snapshot.entries.get(id);
+                Long base = knownRevs.get(id);
+                boolean changedElsewhere = existing != null && (base == null || existing.rev > base);
+                boolean removedElsewhere = existing == null && base != null;
+                if (changedElsewhere || removedElsewhere) {
+                    logger.warning("Region " + id + " was changed by another instance, restoring its version");
+                    conflicts.upserts.removeIf(region -> region.getId().equals(id));
+                    if (changedElsewhere && isLocal(existing.region)) {
+                        conflicts.upserts.add(existing.region);
+                        conflicts.removed.remove(id);
+                        knownRevs.put(id, existing.rev);
+                    } else {
+                        conflicts.removed.add(id);
+                        knownRevs.remove(id);
+                    }
+                    continue;
+                }
+                if (change.getType() == RegionChange.Type.REMOVE) {
+                    snapshot.entries.remove(id);
+                    knownRevs.remove(id);
+                } else {
+                    snapshot.entries.put(id, new Entry(change.getRegion(), next));
+                    knownRevs.put(id, next);
+                }
+            }
+            write(snapshot, next);
+            return conflicts;
+        });
+    }
+
+    public void watch(Listener listener) {
+        if (running) {
+            return;
+        }
+        this.listener = listener;
+        try {
+            Files.createDirectories(directory);
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, "Could not watch " + directory + ", falling back to polling", ex);
+            watchService = null;
+        }
+        running = true;
+        watcher = new Thread(() -> watchLoop(listener), name + "-SharedRegions");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    public void close() {
+        running = false;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ex) {
+                logger.log(Level.FINE, "Failed to close watch service", ex);
+            }
+        }
+        if (watcher != null) {
+            watcher.interrupt();
+            try {
+                watcher.join(TimeUnit.SECONDS.toMillis(5L));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            watcher = null;
+        }
+    }
+
+    private void watchLoop(Listener listener) {
+        while (running) {
+            try {
+                if (watchService != null) {
+                    WatchKey key = watchService.poll(pollMillis, TimeUnit.MILLISECONDS);
+                    if (key != null) {
+                        key.pollEvents();
+                        key.reset();
+                    }
+                } else {
+                    Thread.sleep(pollMillis);
+                }
+                refresh(listener);
+            } catch (InterruptedException | ClosedWatchServiceException ex) {
+                return;
+            } catch (Exception ex) {
+                logger.log(Level.WARNING, "Failed to sync shared regions", ex);
+            }
+        }
+    }
+
+    public synchronized void rescan() {
+        if (!worldNames.isEmpty()) {
+            return;
+        }
+        knownVersion = -1L;
+        knownModified = -1L;
+        knownSize = -1L;
+    }
+
+    void listen(Listener listener) {
+        this.listener = listener;
+    }
+
+    void refresh(Listener listener) throws IOException {
+        Delta delta = poll();
+        if (delta != null && !delta.isEmpty()) {
+            listener.onChange(delta.upserts, delta.removed);
+        }
+    }
+
+    private synchronized Delta poll() throws IOException {
+        if (!Files.exists(regionsFile)) {
+            return null;
+        }
+        long modified = Files.getLastModifiedTime(regionsFile).toMillis();
+        long size = Files.size(regionsFile);
+        if (modified == knownModified && size == knownSize) {
+            return null;
+        }
+        Snapshot snapshot = locked(true, this::read);
+        remember(modified, size);
+        if (snapshot.version == knownVersion) {
+            return null;
+        }
+        Delta delta = new Delta();
+        Set<UUID> seen = new HashSet<>();
+        for (Entry entry : snapshot.entries.values()) {
+            UUID id = entry.region.getId();
+            if (!isLocal(entry.region)) {
+                if (worldNames.isEmpty()) {
+                    seen.add(id);
+                }
+                continue;
+            }
+            seen.add(id);
+            Long known = knownRevs.get(id);
+            if (known == null || entry.rev > known) {
+                delta.upserts.add(entry.region);
+                knownRevs.put(id, entry.rev);
+            }
+        }
+        for (UUID id : new ArrayList<>(knownRevs.keySet())) {
+            if (!seen.contains(id)) {
+                delta.removed.add(id);
+                knownRevs.remove(id);
+            }
+        }
+        logger.info("Shared regions changed (version " + knownVersion + " -> " + snapshot.version + "): "
+                + delta.upserts.size() + " updated, " + delta.removed.size() + " removed in local worlds");
+        knownVersion = snapshot.version;
+        return delta;
+    }
+
+    private boolean isLocal(KeepRegion region) {
+        if (!worldNames.isEmpty()) {
+            return worldNames.contains(region.getWorldName().toLowerCase(Locale.ROOT));
+        }
+        return worldLoaded.test(region);
+    }
+
+    private Snapshot read() throws IOException {
+        Snapshot snapshot = new Snapshot();
+        if (!Files.exists(regionsFile)) {
+            return snapshot;
+        }
+        YamlConfiguration configuration = new YamlConfiguration();
+        try {
+            configuration.loadFromString(Files.readString(regionsFile, StandardCharsets.UTF_8));
+        } catch (InvalidConfigurationException ex) {
+            throw new IOException("Invalid shared region file " + regionsFile, ex);
+        }
+        snapshot.version = configuration.getLong(VERSION_KEY, 0L);
+        List<?> rawList = configuration.getList(REGIONS_KEY);
+        if (rawList != null) {
+            for (int i = 0; i < rawList.size(); i++) {
+                if (!(rawList.get(i) instanceof Map<?, ?> map)) {
+                    logger.warning("Invalid shared region entry at index " + i);
+                    continue;
+                }
+                try {
+                    KeepRegion region = RegionMaps.fromMap(map, false);
+                    Object rev = map.get(REV_KEY);
+                    snapshot.entries.put(region.getId(), new Entry(region, rev instanceof Number number
+                            ? number.longValue() : 0L));
+                } catch (Exception ex) {
+                    snapshot.unreadable.add(map);
+                    logger.log(Level.WARNING, "Failed to read shared region entry at index " + i + ", keeping it as is", ex);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private void write(Snapshot snapshot, long version) throws IOException {
+        YamlConfiguration configuration = new YamlConfiguration();
+        configuration.set(VERSION_KEY, version);
+        List<Map<?, ?>> entries = new ArrayList<>(snapshot.entries.size() + snapshot.unreadable.size());
+        for (Entry entry : snapshot.entries.values()) {
+            Map<String, Object> map = RegionMaps.toMap(entry.region);
+            map.put(REV_KEY, entry.rev);
+            entries.add(map);
+        }
+        entries.addAll(snapshot.unreadable);
+        configuration.set(REGIONS_KEY, entries);
+        Path temp = regionsFile.resolveSibling(regionsFile.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(configuration.saveToString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, regionsFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, regionsFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (snapshot.version == knownVersion) {
+            knownVersion = version;
+            remember(Files.getLastModifiedTime(regionsFile).toMillis(), Files.size(regionsFile));
+        }
+    }
+
+    private void remember(long modified, long size) {
+        boolean settled = modified < System.currentTimeMillis() - TIMESTAMP_SLACK_MILLIS;
+        knownModified = settled ? modified : -1L;
+        knownSize = size;
+    }
+
+    private <T> T locked(boolean shared, IoAction<T> action) throws IOException {
+        Files.createDirectories(directory);
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock(0L, Long.MAX_VALUE, shared);
+            try {
+                return action.run();
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    public interface Listener {
+        void onChange(List<KeepRegion> upserts, Set<UUID> removed);
+    }
+
+    private interface IoAction<T> {
+        T run() throws IOException;
+    }
+
+    private static final class Snapshot {
+        private final Map<UUID, Entry> entries = new LinkedHashMap<>();
+        private final List<Map<?, ?>> unreadable = new ArrayList<>();
+        private long version;
+    }
+
+    private static final class Entry {
+        private final KeepRegion region;
+        private final long rev;
+
+        private Entry(KeepRegion region, long rev) {
+            this.region = region;
+            this.rev = rev;
+        }
+    }
+
+    private static final class Delta {
+        private final List<KeepRegion> upserts = new ArrayList<>();
+        private final Set<UUID> removed = new HashSet<>();
+
+        private boolean isEmpty() {
+            return upserts.isEmpty() && removed.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.logging.Level;
+
+public final class TickMonitor {
+    private static final double NANOS_PER_MILLI = 1_000_000.0D;
+
+    private final JavaPlugin plugin;
+    private final boolean folia;
+    private final double lagTps;
+    private volatile boolean tickReportSupported;
+    private volatile boolean regionTpsSupported;
+    private volatile boolean averageTickTimeSupported = true;
+    private volatile Method worldHandle;
+    private volatile Field regioniser;
+    private volatile Method regionAt;
+    private volatile Method regionData;
+    private volatile Method schedulingHandle;
+    private volatile Method tickReport;
+    private volatile Method timePerTick;
+    private volatile Method segmentAll;
+    private volatile Method average;
+
+    public TickMonitor(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.folia = isFolia();
+        this.lagTps = plugin.getConfig().getDouble("tick-monitor.lag-tps", 19.0D);
+        this.tickReportSupported = folia && plugin.getConfig().getBoolean("tick-monitor.folia-internals", false);
+        this.regionTpsSupported = folia;
+    }
+
+    public boolean hasRegionData() {
+        return folia && (tickReportSupported || regionTpsSupported);
+    }
+
+    public Load regionLoad(World world, int chunkX, int chunkZ) {
+        if (!folia) {
+            return Load.UNKNOWN;
+        }
+        if (tickReportSupported) {
+            try {
+                double mspt = regionMspt(world, chunkX, chunkZ);
+                if (!Double.isNaN(mspt)) {
+                    return new Load(mspt, Double.NaN, lagTps);
+                }
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                tickReportSupported = false;
+                plugin.getLogger().log(Level.WARNING, "Folia tick reports are not readable on this build, "
+                        + "disabling tick-monitor.folia-internals and using region TPS instead", ex);
+            }
+        }
+        if (regionTpsSupported) {
+            try {
+                double[] tps = Bukkit.getServer().getRegionTPS(world, chunkX, chunkZ);
+                if (tps != null && tps.length > 0 && tps[0] > 0.0D) {
+                    return new Load(Double.NaN, tps[0], lagTps);
+                }
+            } catch (UnsupportedOperationException ex) {
+                regionTpsSupported = false;
+                plugin.getLogger().warning("Server does not report region TPS, region load checks are disabled");
+            }
+        }
+        return Load.UNKNOWN;
+    }
+
+    public Load serverLoad() {
+        if (averageTickTimeSupported) {
+            try {
+                return new Load(Bukkit.getAverageTickTime(), Double.NaN, lagTps);
+            } catch (UnsupportedOperationException ex) {
+                averageTickTimeSupported = false;
+            }
+        }
+        return Load.UNKNOWN;
+    }
+
+    private double regionMspt(World world, int chunkX, int chunkZ) throws ReflectiveOperationException {
+        if (worldHandle == null) {
+            worldHandle = accessible(world.getClass().getMethod("getHandle"));
+        }
+        Object level = worldHandle.invoke(world);
+        if (regioniser == null) {
+            regioniser = findField(level.getClass(), "regioniser");
+        }
+        Object regions = regioniser.get(level);
+        if (regionAt == null) {
+            regionAt = accessible(regions.getClass().getMethod("getRegionAtUnsynchronised", int.class, int.class));
+        }
+        Object region = regionAt.invoke(regions, chunkX, chunkZ);
+        if (region == null) {
+            return Double.NaN;
+        }
+        if (regionData == null) {
+            regionData = accessible(region.getClass().getMethod("getData"));
+        }
+        Object data = regionData.invoke(region);
+        if (schedulingHandle == null) {
+            schedulingHandle = accessible(data.getClass().getMethod("getRegionSchedulingHandle"));
+        }
+        Object handle = schedulingHandle.invoke(data);
+        if (tickReport == null) {
+            tickReport = accessible(handle.getClass().getMethod("getTickReport5s", long.class));
+        }
+        Object report = tickReport.invoke(handle, System.nanoTime());
+        if (report == null) {
+            return Double.NaN;
+        }
+        if (timePerTick == null) {
+            timePerTick = accessible(report.getClass().getMethod("timePerTickData"));
+        }
+        Object segments = timePerTick.invoke(report);
+        if (segmentAll == null) {
+            segmentAll = accessible(segments.getClass().getMethod("segmentAll"));
+        }
+        Object all = segmentAll.invoke(segments);
+        if (average == null) {
+            average = accessible(all.getClass().getMethod("average"));
+        }
+        return ((Number) average.invoke(all)).doubleValue() / NANOS_PER_MILLI;
+    }
+
+    private static Field findField(Class<?> type, String name) throws NoSuchFieldException {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            try {
+                Field field = current.getDeclaredField(name);
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException ignored) {
+                // keep searching the superclasses
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+
+    private static Method accessible(Method method) {
+        method.setAccessible(true);
+        return method;
+    }
+
+    private static boolean isFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException ex) {
+            return false;
+        }
+    }
+
+    public static final class Load {
+        public static final Load UNKNOWN = new Load(Double.NaN, Double.NaN, 0.0D);
+
+        private final double mspt;
+        private final double tps;
+        private final double lagTps;
+
+        private Load(double mspt, double tps, double lagTps) {
+            this.mspt = mspt;
+            this.tps = tps;
+            this.lagTps = lagTps;
+        }
+
+        public boolean isKnown() {
+            return !Double.isNaN(mspt) || !Double.isNaN(tps);
+        }
+
+        public boolean exceeds(double msptLimit) {
+            if (!Double.isNaN(mspt)) {
+                return mspt > msptLimit;
+            }
+            return !Double.isNaN(tps) && tps < lagTps;
+        }
+
+        public boolean within(double msptLimit) {
+            if (!Double.isNaN(mspt)) {
+                return mspt < msptLimit;
+            }
+            return Double.isNaN(tps) || tps >= lagTps;
+        }
+
+        public String describe() {
+            if (!Double.isNaN(mspt)) {
+                return String.format(Locale.ROOT, "%.1f mspt", mspt);
+            }
+            return Double.isNaN(tps) ? "unknown" : String.format(Locale.ROOT, "%.1f tps", tps);
+        }
+    }
+}
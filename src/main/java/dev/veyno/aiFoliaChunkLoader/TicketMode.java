@@ -0,0 +1,19 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import java.util.Locale;
+
+public enum TicketMode {
+    FULL,
+    CORE;
+
+    public static TicketMode parse(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return FULL;
+        }
+        return valueOf(raw.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public String id() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
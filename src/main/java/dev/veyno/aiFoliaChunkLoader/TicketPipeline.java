@@ -0,0 +1,279 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+public final class TicketPipeline {
+    private static final int SAMPLE_SHIFT = 5;
+
+    private final JavaPlugin plugin;
+    private final TickMonitor tickMonitor;
+    private final Demand demand;
+    private final int maxInFlight;
+    private final double msptBudget;
+    private final Map<UUID, WorldQueue> queues = new ConcurrentHashMap<>();
+    private final Map<UUID, ChunkRefCounts> ticketed = new ConcurrentHashMap<>();
+    private ScheduledTask pumpTask;
+
+    public TicketPipeline(JavaPlugin plugin, TickMonitor tickMonitor, Demand demand) {
+        this.plugin = plugin;
+        this.tickMonitor = tickMonitor;
+        this.demand = demand;
+        this.maxInFlight = Math.max(1, plugin.getConfig().getInt("tickets.max-in-flight-per-world", 32));
+        this.msptBudget = plugin.getConfig().getDouble("tickets.mspt-budget", 45.0D);
+    }
+
+    public void start() {
+        if (pumpTask == null) {
+            pumpTask = Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, task -> pump(), 1L, 1L);
+        }
+    }
+
+    public void stop() {
+        if (pumpTask != null) {
+            pumpTask.cancel();
+            pumpTask = null;
+        }
+        for (WorldQueue queue : queues.values()) {
+            queue.cancelBarriers();
+        }
+        queues.clear();
+        ticketed.clear();
+    }
+
+    public void markTicketed(World world, long[] chunkKeys) {
+        ChunkRefCounts known = ticketed.computeIfAbsent(world.getUID(), key -> new ChunkRefCounts());
+        for (long key : chunkKeys) {
+            mark(known, key);
+        }
+    }
+
+    private static void mark(ChunkRefCounts known, long chunkKey) {
+        synchronized (known) {
+            if (known.get(chunkKey) == 0) {
+                known.increment(chunkKey);
+            }
+        }
+    }
+
+    public void forgetTicket(World world, long chunkKey) {
+        ChunkRefCounts known = ticketed.get(world.getUID());
+        if (known != null) {
+            known.decrement(chunkKey);
+        }
+    }
+
+    public int ticketedCount(World world, long[] chunkKeys) {
+        ChunkRefCounts known = ticketed.get(world.getUID());
+        if (known == null) {
+            return 0;
+        }
+        int count = 0;
+        for (long key : chunkKeys) {
+            if (known.get(key) > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void forgetWorld(World world) {
+        ticketed.remove(world.getUID());
+    }
+
+    public void enqueue(World world, long[] chunkKeys) {
+        if (chunkKeys.length == 0) {
+            return;
+        }
+        WorldQueue queue = queues.computeIfAbsent(world.getUID(), key -> new WorldQueue(world));
+        queue.offer(chunkKeys);
+    }
+
+    public CompletableFuture<Void> barrier(World world) {
+        WorldQueue queue = queues.get(world.getUID());
+        return queue == null ? CompletableFuture.completedFuture(null) : queue.barrier();
+    }
+
+    public int pending() {
+        int total = 0;
+        for (WorldQueue queue : queues.values()) {
+            total += queue.size() + queue.inFlight.get();
+        }
+        return total;
+    }
+
+    private void pump() {
+        for (WorldQueue queue : queues.values()) {
+            World world = queue.world;
+            Map<Long, TickMonitor.Load> loads = new HashMap<>();
+            while (queue.inFlight.get() < maxInFlight) {
+                long key;
+                long position;
+                synchronized (queue) {
+                    if (queue.isEmpty()) {
+                        break;
+                    }
+                    key = queue.peek();
+                    if (msptBudget > 0.0D && load(world, key, loads).exceeds(msptBudget)) {
+                        break;
+                    }
+                    position = queue.poll();
+                }
+                if (!demand.wants(world, key) || isTicketed(world, key)) {
+                    queue.complete(position);
+                    continue;
+                }
+                load(queue, key, position);
+            }
+        }
+    }
+
+    private TickMonitor.Load load(World world, long key, Map<Long, TickMonitor.Load> loads) {
+        long section = ChunkKey.of(ChunkKey.x(key) >> SAMPLE_SHIFT, ChunkKey.z(key) >> SAMPLE_SHIFT);
+        return loads.computeIfAbsent(section, ignored -> {
+            TickMonitor.Load load = tickMonitor.regionLoad(world, ChunkKey.x(key), ChunkKey.z(key));
+            return load.isKnown() ? load : tickMonitor.serverLoad();
+        });
+    }
+
+    private void load(WorldQueue queue, long key, long position) {
+        World world = queue.world;
+        int chunkX = ChunkKey.x(key);
+        int chunkZ = ChunkKey.z(key);
+        queue.inFlight.incrementAndGet();
+        world.getChunkAtAsync(chunkX, chunkZ).whenComplete((chunk, error) -> {
+            try {
+                if (error != null) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to load chunk " + chunkX + "," + chunkZ + " in world "
+                            + world.getName(), error);
+                    return;
+                }
+                if (chunk != null && demand.wants(world, key)) {
+                    chunk.addPluginChunkTicket(plugin);
+                    mark(ticketed.computeIfAbsent(world.getUID(), ignored -> new ChunkRefCounts()), key);
+                }
+            } catch (Exception ex) {
+                plugin.getLogger().log(Level.WARNING, "Failed to add ticket for chunk " + chunkX + "," + chunkZ
+                        + " in world " + world.getName(), ex);
+            } finally {
+                queue.inFlight.decrementAndGet();
+                queue.complete(position);
+            }
+        });
+    }
+
+    private static final class Barrier {
+        private final long position;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Barrier(long position) {
+            this.position = position;
+        }
+    }
+
+    private boolean isTicketed(World world, long chunkKey) {
+        ChunkRefCounts known = ticketed.get(world.getUID());
+        return known != null && known.get(chunkKey) > 0;
+    }
+
+    public interface Demand {
+        boolean wants(World world, long chunkKey);
+    }
+
+    private static final class WorldQueue {
+        private final World world;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final TreeSet<Long> loading = new TreeSet<>();
+        private final ArrayDeque<Barrier> barriers = new ArrayDeque<>();
+        private long[] keys = new long[64];
+        private int head;
+        private int tail;
+        private long polled;
+
+        private WorldQueue(World world) {
+            this.world = world;
+        }
+
+        private synchronized void offer(long[] chunkKeys) {
+            int size = tail - head;
+            if (tail + chunkKeys.length > keys.length) {
+                long[] grown = size + chunkKeys.length > keys.length
+                        ? new long[Math.max(keys.length * 2, size + chunkKeys.length)]
+                        : keys;
+                System.arraycopy(keys, head, grown, 0, size);
+                keys = grown;
+                head = 0;
+                tail = size;
+            }
+            System.arraycopy(chunkKeys, 0, keys, tail, chunkKeys.length);
+            tail += chunkKeys.length;
+        }
+
+        private synchronized int size() {
+            return tail - head;
+        }
+
+        private boolean isEmpty() {
+            return head == tail;
+        }
+
+        private long peek() {
+            return keys[head];
+        }
+
+        private long poll() {
+            head++;
+            loading.add(polled);
+            return polled++;
+        }
+
+        private synchronized CompletableFuture<Void> barrier() {
+            long position = polled + size();
+            if (position <= watermark()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            Barrier barrier = new Barrier(position);
+            barriers.add(barrier);
+            return barrier.future;
+        }
+
+        private void complete(long position) {
+            List<CompletableFuture<Void>> reached = new ArrayList<>();
+            synchronized (this) {
+                loading.remove(position);
+                long watermark = watermark();
+                while (!barriers.isEmpty() && barriers.peek().position <= watermark) {
+                    reached.add(barriers.poll().future);
+                }
+            }
+            for (CompletableFuture<Void> future : reached) {
+                future.complete(null);
+            }
+        }
+
+        private synchronized void cancelBarriers() {
+            for (Barrier barrier : barriers) {
+                barrier.future.cancel(false);
+            }
+            barriers.clear();
+        }
+
+        private long watermark() {
+            return loading.isEmpty() ? polled : loading.first();
+        }
+    }
+}
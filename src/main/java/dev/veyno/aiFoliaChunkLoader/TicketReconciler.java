@@ -0,0 +1,183 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+
+public final class TicketReconciler {
+    private final JavaPlugin plugin;
+    private final RegionManager manager;
+    private final TicketPipeline pipeline;
+    private final long intervalTicks;
+    private ScheduledTask task;
+    private volatile boolean supported = true;
+
+    public TicketReconciler(JavaPlugin plugin, RegionManager manager, TicketPipeline pipeline) {
+        this.plugin = plugin;
+        this.manager = manager;
+        this.pipeline = pipeline;
+        this.intervalTicks = plugin.getConfig().getLong("tickets.reconcile-interval-seconds", 300L) * 20L;
+    }
+
+    public void seed(Collection<World> worlds) {
+        for (World world : worlds) {
+            long[] live = liveTickets(world);
+            if (live != null && live.length > 0) {
+                pipeline.markTicketed(world, live);
+                plugin.getLogger().info("Found " + live.length + " existing tickets in world " + world.getName());
+            }
+        }
+    }
+
+    public void reconcileOnStartup(Collection<World> worlds, List<KeepRegion> regions) {
+        Map<UUID, List<long[]>> desiredByWorld = new HashMap<>();
+        for (KeepRegion region : regions) {
+            World world = manager.worldOf(region);
+            if (world != null && manager.policyAllows(region)) {
+                desiredByWorld.computeIfAbsent(world.getUID(), key -> new ArrayList<>()).add(region.ticketKeys());
+            }
+        }
+        for (World world : worlds) {
+            long[] live = liveTickets(world);
+            if (live == null) {
+                continue;
+            }
+            long[] desired = distinct(desiredByWorld.getOrDefault(world.getUID(), List.of()));
+            Arrays.sort(live);
+            long[] orphaned = difference(live, desired);
+            int missing = difference(desired, live).length;
+            if (live.length > 0) {
+                pipeline.markTicketed(world, live);
+            }
+            manager.releaseOrphans(world, orphaned);
+            if (live.length > 0 || missing > 0) {
+                plugin.getLogger().info("Startup ticket diff in world " + world.getName() + ": "
+                        + (live.length - orphaned.length) + " kept, " + missing + " missing, " + orphaned.length + " orphaned");
+            }
+        }
+    }
+
+    public void start() {
+        if (intervalTicks <= 0L || task != null) {
+            return;
+        }
+        task = Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, scheduled -> reconcileAll(), intervalTicks,
+                intervalTicks);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private void reconcileAll() {
+        if (!supported || !manager.isReady() || pipeline.pending() > 0) {
+            return;
+        }
+        for (World world : Bukkit.getWorlds()) {
+            reconcile(world);
+        }
+    }
+
+    private void reconcile(World world) {
+        long[] live = liveTickets(world);
+        if (live == null) {
+            return;
+        }
+        long[] desired = manager.desiredTickets(world);
+        Arrays.sort(live);
+        Arrays.sort(desired);
+        long[] missing = difference(desired, live);
+        long[] orphaned = difference(live, desired);
+        if (missing.length == 0 && orphaned.length == 0) {
+            return;
+        }
+        for (long key : missing) {
+            pipeline.forgetTicket(world, key);
+        }
+        pipeline.enqueue(world, missing);
+        manager.releaseOrphans(world, orphaned);
+        plugin.getLogger().info("Reconciled tickets in world " + world.getName() + ": " + missing.length + " missing, "
+                + orphaned.length + " orphaned");
+    }
+
+    private long[] liveTickets(World world) {
+        if (!supported) {
+            return null;
+        }
+        Map<Plugin, Collection<Chunk>> tickets;
+        try {
+            tickets = world.getPluginChunkTickets();
+        } catch (UnsupportedOperationException ex) {
+            supported = false;
+            plugin.getLogger().warning("Server does not expose plugin chunk tickets, ticket reconciliation disabled");
+            return null;
+        } catch (Exception ex) {
+            plugin.getLogger().log(Level.WARNING, "Failed to read plugin chunk tickets in world " + world.getName(), ex);
+            return null;
+        }
+        Collection<Chunk> chunks = tickets.get(plugin);
+        if (chunks == null) {
+            return new long[0];
+        }
+        long[] keys = new long[chunks.size()];
+        int size = 0;
+        for (Chunk chunk : chunks) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2 + 1);
+            }
+            keys[size++] = ChunkKey.of(chunk.getX(), chunk.getZ());
+        }
+        return Arrays.copyOf(keys, size);
+    }
+
+    private static long[] distinct(List<long[]> keys) {
+        int size = 0;
+        for (long[] chunk : keys) {
+            size += chunk.length;
+        }
+        long[] sorted = new long[size];
+        int offset = 0;
+        for (long[] chunk : keys) {
+            System.arraycopy(chunk, 0, sorted, offset, chunk.length);
+            offset += chunk.length;
+        }
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, unique);
+    }
+
+    private static long[] difference(long[] sorted, long[] excluded) {
+        long[] result = new long[sorted.length];
+        int size = 0;
+        int j = 0;
+        for (long key : sorted) {
+            while (j < excluded.length && excluded[j] < key) {
+                j++;
+            }
+            if (j >= excluded.length || excluded[j] != key) {
+                result[size++] = key;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+}
@@ -0,0 +1,133 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public final class WarmupScheduler {
+    private static final String PREFIX = ChatColor.AQUA + "[KeepRegion] " + ChatColor.GRAY;
+
+    private final JavaPlugin plugin;
+    private final RegionManager manager;
+    private final TicketPipeline pipeline;
+    private final int chunksPerTick;
+    private final long reportIntervalTicks;
+    private final Map<String, Deque<KeepRegion>> queues = new LinkedHashMap<>();
+    private ScheduledTask task;
+    private int totalRegions;
+    private long totalChunks;
+    private int appliedRegions;
+    private long appliedChunks;
+    private long ticks;
+    private volatile boolean ready;
+
+    public WarmupScheduler(JavaPlugin plugin, RegionManager manager, TicketPipeline pipeline) {
+        this.plugin = plugin;
+        this.manager = manager;
+        this.pipeline = pipeline;
+        this.chunksPerTick = Math.max(1, plugin.getConfig().getInt("warmup.chunks-per-tick", 256));
+        this.reportIntervalTicks = Math.max(20L, plugin.getConfig().getLong("warmup.report-interval-seconds", 10L) * 20L);
+    }
+
+    public void start(List<KeepRegion> regions) {
+        ready = false;
+        Map<String, List<KeepRegion>> byWorld = new LinkedHashMap<>();
+        for (KeepRegion region : regions) {
+            byWorld.computeIfAbsent(region.getWorldName().toLowerCase(Locale.ROOT), key -> new ArrayList<>()).add(region);
+            totalChunks += region.chunkCount();
+        }
+        totalRegions = regions.size();
+        for (Map.Entry<String, List<KeepRegion>> entry : byWorld.entrySet()) {
+            List<KeepRegion> ordered = entry.getValue();
+            ordered.sort(warmupOrder(Bukkit.getWorld(ordered.getFirst().getWorldName())));
+            queues.put(entry.getKey(), new ArrayDeque<>(ordered));
+        }
+        plugin.getLogger().info("Warming up " + totalRegions + " regions (" + totalChunks + " chunks) at "
+                + chunksPerTick + " chunks per tick and world");
+        task = Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, scheduled -> tick(), 1L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        queues.clear();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public String progress() {
+        if (ready) {
+            return "bereit";
+        }
+        int percent = totalChunks == 0 ? 100 : (int) (appliedChunks * 100 / totalChunks);
+        return appliedRegions + "/" + totalRegions + " Regionen, " + percent + "% der Chunks angefordert, "
+                + pipeline.pending() + " ausstehend";
+    }
+
+    private void tick() {
+        ticks++;
+        for (Deque<KeepRegion> queue : queues.values()) {
+            int budget = chunksPerTick;
+            while (budget > 0 && !queue.isEmpty()) {
+                KeepRegion region = queue.poll();
+                int chunks = region.chunkCount();
+                if (manager.policyAllows(region)) {
+                    manager.activate(region);
+                }
+                appliedRegions++;
+                appliedChunks += chunks;
+                budget -= chunks;
+            }
+        }
+        queues.values().removeIf(Deque::isEmpty);
+        if (queues.isEmpty() && pipeline.pending() == 0) {
+            ready = true;
+            stop();
+            report("Warm-up finished: " + totalRegions + " regions ticketed after " + ticks + " ticks",
+                    "Warm-up abgeschlossen: " + totalRegions + " Regionen geladen.");
+            return;
+        }
+        if (ticks % reportIntervalTicks == 0) {
+            report("Warm-up: " + appliedRegions + "/" + totalRegions + " regions, " + appliedChunks + "/" + totalChunks
+                    + " chunks requested, " + pipeline.pending() + " pending", "Warm-up: " + progress());
+        }
+    }
+
+    private void report(String consoleMessage, String playerMessage) {
+        plugin.getLogger().info(consoleMessage);
+        String message = PREFIX + playerMessage;
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (player.hasPermission("keepregion.admin")) {
+                player.sendMessage(message);
+            }
+        }
+    }
+
+    private static Comparator<KeepRegion> warmupOrder(World world) {
+        Comparator<KeepRegion> byPriority = Comparator.comparingInt(KeepRegion::getPriority).reversed();
+        if (world == null) {
+            return byPriority;
+        }
+        Location spawn = world.getSpawnLocation();
+        int spawnX = Math.floorDiv(spawn.getBlockX(), 16);
+        int spawnZ = Math.floorDiv(spawn.getBlockZ(), 16);
+        return byPriority.thenComparingInt(region -> RegionIndex.distance(region, spawnX, spawnZ));
+    }
+}
@@ -0,0 +1,60 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class WorldTracker implements Listener {
+    private final RegionManager manager;
+    private final Map<UUID, World> byUuid = new ConcurrentHashMap<>();
+    private final Map<String, World> byName = new ConcurrentHashMap<>();
+
+    public WorldTracker(RegionManager manager) {
+        this.manager = manager;
+    }
+
+    public void start() {
+        for (World world : Bukkit.getWorlds()) {
+            track(world);
+        }
+    }
+
+    public World resolve(KeepRegion region) {
+        UUID worldUuid = region.getWorldUuid();
+        if (worldUuid != null) {
+            World world = byUuid.get(worldUuid);
+            if (world != null) {
+                return world;
+            }
+        }
+        return byName.get(region.getWorldName().toLowerCase(Locale.ROOT));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        track(event.getWorld());
+        manager.worldLoaded(event.getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        World world = event.getWorld();
+        byUuid.remove(world.getUID());
+        byName.remove(world.getName().toLowerCase(Locale.ROOT), world);
+        manager.worldUnloading(world);
+    }
+
+    private void track(World world) {
+        byUuid.put(world.getUID(), world);
+        byName.put(world.getName().toLowerCase(Locale.ROOT), world);
+    }
+}
@@ -0,0 +1,105 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class YamlRegionStore implements RegionStore {
+    private static final String REGIONS_KEY = "regions";
+
+    private final Logger logger;
+    private final File regionsFile;
+
+    public YamlRegionStore(JavaPlugin plugin) {
+        this(plugin.getDataFolder(), plugin.getLogger());
+    }
+
+    public YamlRegionStore(File dataFolder, Logger logger) {
+        this.logger = logger;
+        this.regionsFile = new File(dataFolder, "regions.yml");
+    }
+
+    @Override
+    public List<KeepRegion> load() {
+        ensureFile();
+        YamlConfiguration configuration = YamlConfiguration.loadConfiguration(regionsFile);
+        List<KeepRegion> regions = new ArrayList<>();
+        List<?> rawList = configuration.getList(REGIONS_KEY);
+        if (rawList == null) {
+            return regions;
+        }
+        for (int i = 0; i < rawList.size(); i++) {
+            Object entry = rawList.get(i);
+            if (!(entry instanceof Map<?, ?> map)) {
+                logger.warning("Invalid region entry at index " + i + " in regions.yml");
+                continue;
+            }
+            try {
+                regions.add(RegionMaps.fromMap(map, false));
+            } catch (Exception ex) {
+                logger.log(Level.WARNING, "Failed to load region entry at index " + i, ex);
+            }
+        }
+        return regions;
+    }
+
+    @Override
+    public void save(List<KeepRegion> regions) throws IOException {
+        ensureFile();
+        YamlConfiguration configuration = new YamlConfiguration();
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (KeepRegion region : regions) {
+            entries.add(RegionMaps.toMap(region));
+        }
+        configuration.set(REGIONS_KEY, entries);
+        writeAtomically(configuration.saveToString());
+    }
+
+    private void writeAtomically(String content) throws IOException {
+        Path target = regionsFile.toPath();
+        Path temp = target.resolveSibling(regionsFile.getName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void ensureFile() {
+        if (!regionsFile.exists()) {
+            if (!regionsFile.getParentFile().exists() && !regionsFile.getParentFile().mkdirs()) {
+                logger.warning("Failed to create plugin data folder");
+            }
+            try {
+                if (!regionsFile.createNewFile()) {
+                    logger.warning("Failed to create regions.yml");
+                }
+            } catch (IOException ex) {
+                logger.log(Level.SEVERE, "Failed to create regions.yml", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package dev.veyno.aiFoliaChunkLoader.api;
+
+import dev.veyno.aiFoliaChunkLoader.KeepRegion;
+import org.bukkit.event.HandlerList;
+
+public final class KeepRegionActivateEvent extends KeepRegionEvent {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    public KeepRegionActivateEvent(KeepRegion region) {
+        super(region);
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
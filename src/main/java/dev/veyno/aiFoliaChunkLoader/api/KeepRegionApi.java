@@ -0,0 +1,31 @@
+package dev.veyno.aiFoliaChunkLoader.api;
+
+import dev.veyno.aiFoliaChunkLoader.KeepRegion;
+import dev.veyno.aiFoliaChunkLoader.RegionShape;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public interface KeepRegionApi {
+    KeepRegion create(Plugin owner, World world, int centerX, int centerZ, int radius, RegionShape shape, boolean persistent);
+
+    boolean remove(KeepRegion region);
+
+    int removeAll(Plugin owner);
+
+    Optional<KeepRegion> find(UUID regionId);
+
+    List<KeepRegion> regionsAt(World world, int chunkX, int chunkZ);
+
+    List<KeepRegion> regionsOf(Plugin owner);
+
+    boolean isActive(KeepRegion region);
+
+    boolean isPersistent(KeepRegion region);
+
+    CompletableFuture<Boolean> whenTicketed(KeepRegion region);
+}
@@ -0,0 +1,28 @@
+package dev.veyno.aiFoliaChunkLoader.api;
+
+import dev.veyno.aiFoliaChunkLoader.KeepRegion;
+import org.bukkit.event.HandlerList;
+
+public final class KeepRegionCreateEvent extends KeepRegionEvent {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final boolean persistent;
+
+    public KeepRegionCreateEvent(KeepRegion region, boolean persistent) {
+        super(region);
+        this.persistent = persistent;
+    }
+
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
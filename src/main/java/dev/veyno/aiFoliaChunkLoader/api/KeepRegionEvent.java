@@ -0,0 +1,18 @@
+package dev.veyno.aiFoliaChunkLoader.api;
+
+import dev.veyno.aiFoliaChunkLoader.KeepRegion;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+
+public abstract class KeepRegionEvent extends Event {
+    private final KeepRegion region;
+
+    protected KeepRegionEvent(KeepRegion region) {
+        super(!Bukkit.isPrimaryThread());
+        this.region = region;
+    }
+
+    public KeepRegion getRegion() {
+        return region;
+    }
+}
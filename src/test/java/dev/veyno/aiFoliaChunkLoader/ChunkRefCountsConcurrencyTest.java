@@ -0,0 +1,124 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+final class ChunkRefCountsConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int KEYS = 2048;
+    private static final int ROUNDS = 5;
+
+    @Test
+    void concurrentIncrementAndDecrementBalanceOut() throws Exception {
+        ChunkRefCounts counts = new ChunkRefCounts();
+        long[] keys = keys();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CyclicBarrier incremented = new CyclicBarrier(THREADS + 1);
+        CyclicBarrier checked = new CyclicBarrier(THREADS + 1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int offset = thread * 131;
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < ROUNDS; round++) {
+                        for (int i = 0; i < keys.length; i++) {
+                            counts.increment(keys[(i + offset) % keys.length]);
+                        }
+                    }
+                    incremented.await(60L, TimeUnit.SECONDS);
+                    checked.await(60L, TimeUnit.SECONDS);
+                    for (int round = 0; round < ROUNDS; round++) {
+                        for (int i = keys.length - 1; i >= 0; i--) {
+                            counts.decrement(keys[(i + offset) % keys.length]);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            incremented.await(60L, TimeUnit.SECONDS);
+            assertEquals(KEYS, counts.size());
+            for (long key : keys) {
+                assertEquals(THREADS * ROUNDS, counts.get(key));
+            }
+            long[] live = counts.keys();
+            Arrays.sort(live);
+            long[] expected = keys.clone();
+            Arrays.sort(expected);
+            assertArrayEquals(expected, live);
+            checked.await(60L, TimeUnit.SECONDS);
+            for (Future<?> worker : workers) {
+                worker.get(60L, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, counts.size());
+        assertEquals(0, counts.keys().length);
+        for (long key : keys) {
+            assertEquals(0, counts.get(key));
+        }
+    }
+
+    @Test
+    void interleavedAcquireReleaseNeverLosesOrLeaksCounts() throws Exception {
+        ChunkRefCounts counts = new ChunkRefCounts();
+        long[] keys = keys();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int offset = thread * 97;
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < ROUNDS * 4; round++) {
+                        for (int i = 0; i < keys.length; i++) {
+                            long key = keys[(i + offset + round) % keys.length];
+                            int acquired = counts.increment(key);
+                            if (acquired < 1 || acquired > THREADS) {
+                                throw new AssertionError("count " + acquired + " out of range for " + key);
+                            }
+                            if (counts.decrement(key) < 0) {
+                                throw new AssertionError("released a key that was never held: " + key);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(60L, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, counts.size());
+        assertEquals(0, counts.keys().length);
+    }
+
+    private static long[] keys() {
+        long[] keys = new long[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            int x = (i % 64) - 32 + (i / 1024) * 100_000;
+            int z = ((i / 64) % 16) - 8;
+            keys[i] = ChunkKey.of(x, z);
+        }
+        return keys;
+    }
+}
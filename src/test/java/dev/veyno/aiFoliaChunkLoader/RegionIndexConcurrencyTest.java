@@ -0,0 +1,112 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class RegionIndexConcurrencyTest {
+    private static final int WRITERS = 8;
+    private static final int READERS = 4;
+    private static final int REGIONS_PER_WRITER = 400;
+    private static final String[] WORLDS = {"world", "world_nether", "world_the_end"};
+
+    @Test
+    void concurrentPlusAndMinusKeepEverySnapshotConsistent() throws Exception {
+        AtomicReference<RegionIndex> index = new AtomicReference<>(RegionIndex.EMPTY);
+        List<List<KeepRegion>> perWriter = new ArrayList<>();
+        for (int writer = 0; writer < WRITERS; writer++) {
+            List<KeepRegion> regions = new ArrayList<>();
+            for (int i = 0; i < REGIONS_PER_WRITER; i++) {
+                regions.add(region(WORLDS[(writer + i) % WORLDS.length], writer * 1000 + i * 3, i * 7 - 500, i % 4));
+            }
+            perWriter.add(regions);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (List<KeepRegion> regions : perWriter) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (KeepRegion region : regions) {
+                        index.updateAndGet(current -> current.plus(region));
+                    }
+                    for (int i = 0; i < regions.size(); i += 2) {
+                        KeepRegion region = regions.get(i);
+                        index.updateAndGet(current -> current.minus(region));
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int reader = 0; reader < READERS; reader++) {
+                readers.add(executor.submit(() -> {
+                    start.await();
+                    while (writing.get()) {
+                        assertConsistent(index.get());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(60L, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(60L, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        RegionIndex result = index.get();
+        assertConsistent(result);
+        assertEquals(WRITERS * REGIONS_PER_WRITER / 2, result.size());
+        for (List<KeepRegion> regions : perWriter) {
+            for (int i = 0; i < regions.size(); i++) {
+                KeepRegion region = regions.get(i);
+                assertEquals(i % 2 != 0, result.contains(region), "region " + region.getId());
+            }
+        }
+    }
+
+    static void assertConsistent(RegionIndex snapshot) {
+        List<KeepRegion> all = snapshot.all();
+        assertEquals(snapshot.size(), all.size());
+        Set<UUID> ids = new HashSet<>();
+        for (KeepRegion region : all) {
+            assertTrue(ids.add(region.getId()), "duplicate region " + region.getId());
+            assertSame(region, snapshot.find(region));
+            assertTrue(snapshot.at(region.getWorldName(), region.getCenterX(), region.getCenterZ()).contains(region));
+            assertTrue(snapshot.byCenter(region.getWorldName(), region.getCenterX(), region.getCenterZ()).contains(region));
+            assertEquals(List.of(region), snapshot.byIdPrefix(region.getId().toString(), 2));
+        }
+        int perWorld = 0;
+        for (String world : WORLDS) {
+            perWorld += snapshot.inWorld(world).size();
+        }
+        assertEquals(all.size(), perWorld);
+    }
+
+    private static KeepRegion region(String world, int centerX, int centerZ, int radius) {
+        return new KeepRegion(UUID.randomUUID(), world, null, centerX, centerZ, radius, "tester", Instant.EPOCH);
+    }
+}
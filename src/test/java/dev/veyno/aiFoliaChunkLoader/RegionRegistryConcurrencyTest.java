@@ -0,0 +1,175 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class RegionRegistryConcurrencyTest {
+    private static final int WRITERS = 8;
+    private static final int READERS = 4;
+    private static final int CANDIDATES = 300;
+    private static final int BATCHES = 2000;
+    private static final String[] WORLDS = {"world", "world_nether", "world_the_end"};
+
+    @Test
+    void concurrentAddAndRemoveKeepKeysUnique() throws Exception {
+        RegionRegistry registry = new RegionRegistry();
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        int added = 0;
+        int missing = 0;
+        try {
+            List<Future<int[]>> writers = new ArrayList<>();
+            for (int writer = 0; writer < WRITERS; writer++) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    List<KeepRegion> owned = new ArrayList<>();
+                    for (int round = 0; round < 3; round++) {
+                        for (int i = 0; i < CANDIDATES; i++) {
+                            KeepRegion candidate = region(WORLDS[i % WORLDS.length], i, -i, 2);
+                            if (registry.add(candidate)) {
+                                owned.add(candidate);
+                            }
+                        }
+                        for (int i = owned.size() - 1; i >= 0; i -= 2) {
+                            registry.remove(owned.remove(i));
+                        }
+                    }
+                    int gone = 0;
+                    for (KeepRegion region : owned) {
+                        if (!registry.snapshot().contains(region)) {
+                            gone++;
+                        }
+                    }
+                    return new int[]{owned.size(), gone};
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int reader = 0; reader < READERS; reader++) {
+                readers.add(executor.submit(() -> {
+                    start.await();
+                    while (writing.get()) {
+                        RegionIndexConcurrencyTest.assertConsistent(registry.snapshot());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<int[]> writer : writers) {
+                int[] result = writer.get(60L, TimeUnit.SECONDS);
+                added += result[0];
+                missing += result[1];
+            }
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(60L, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        RegionIndex result = registry.snapshot();
+        RegionIndexConcurrencyTest.assertConsistent(result);
+        assertEquals(0, missing);
+        assertEquals(added, result.size());
+        for (String world : WORLDS) {
+            for (KeepRegion region : result.inWorld(world)) {
+                assertEquals(1, result.byCenter(world, region.getCenterX(), region.getCenterZ()).size());
+            }
+        }
+    }
+
+    @Test
+    void crossWorldBatchesInAnyOrderDoNotDeadlock() throws Exception {
+        RegionRegistry registry = new RegionRegistry();
+        List<KeepRegion> initial = new ArrayList<>();
+        for (int i = 0; i < CANDIDATES; i++) {
+            initial.add(region(WORLDS[i % WORLDS.length], i, i, 1));
+        }
+        registry.reset(initial);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int writer = 0; writer < WRITERS; writer++) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int batch = 0; batch < BATCHES; batch++) {
+                        List<String> worlds = new ArrayList<>(Arrays.asList(WORLDS));
+                        Collections.shuffle(worlds, random);
+                        List<String> locked = worlds.subList(0, 1 + random.nextInt(worlds.size()));
+                        registry.withWorlds(locked, () -> {
+                            RegionIndex snapshot = registry.snapshot();
+                            List<KeepRegion> removed = new ArrayList<>();
+                            List<KeepRegion> added = new ArrayList<>();
+                            for (String world : locked) {
+                                List<KeepRegion> inWorld = snapshot.inWorld(world);
+                                KeepRegion victim = inWorld.get(random.nextInt(inWorld.size()));
+                                removed.add(victim);
+                                added.add(victim.toBuilder().createdBy("batch").build());
+                            }
+                            registry.apply(removed, added);
+                            return null;
+                        });
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(60L, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        RegionIndex result = registry.snapshot();
+        RegionIndexConcurrencyTest.assertConsistent(result);
+        assertEquals(CANDIDATES, result.size());
+        for (KeepRegion region : initial) {
+            assertTrue(result.containsKey(region), "lost region " + region.getId());
+        }
+    }
+
+    @Test
+    void applyRequiresWorldLocks() {
+        RegionRegistry registry = new RegionRegistry();
+        KeepRegion region = region("world", 0, 0, 1);
+        assertThrows(IllegalStateException.class, () -> registry.apply(List.of(), List.of(region)));
+        registry.withWorlds(List.of("WORLD"), () -> {
+            registry.apply(List.of(), List.of(region));
+            return null;
+        });
+        assertTrue(registry.snapshot().contains(region));
+        assertFalse(registry.add(region));
+        assertThrows(IllegalArgumentException.class, () -> registry.replace(region, otherWorld(region)));
+    }
+
+    private static KeepRegion otherWorld(KeepRegion region) {
+        return KeepRegion.builder(region.getId(), "world_nether", region.getCenterX(), region.getCenterZ())
+                .radius(region.getRadius()).build();
+    }
+
+    private static KeepRegion region(String world, int centerX, int centerZ, int radius) {
+        return new KeepRegion(UUID.randomUUID(), world, null, centerX, centerZ, radius, "tester", Instant.EPOCH);
+    }
+}
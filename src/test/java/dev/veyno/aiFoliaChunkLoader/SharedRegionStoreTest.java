@@ -0,0 +1,214 @@
+package dev.veyno.aiFoliaChunkLoader;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class SharedRegionStoreTest {
+    private static final Logger LOGGER = Logger.getLogger(SharedRegionStoreTest.class.getName());
+    private static final int WORKERS = 3;
+    private static final int WORKER_REGIONS = 40;
+
+    @Test
+    void twoInstancesConvergeOnSharedChanges() throws Exception {
+        Path directory = Files.createTempDirectory("shared-regions");
+        try {
+            SharedRegionStore first = store(directory, "first");
+            SharedRegionStore second = store(directory, "second");
+            assertEquals(0, first.load().size());
+            assertEquals(0, second.load().size());
+
+            KeepRegion region = region("world", 10, -4, 2);
+            first.apply(List.of(RegionChange.upsert(region)), List::of);
+            Recorder seen = new Recorder();
+            second.refresh(seen);
+            assertEquals(1, seen.upserts.size());
+            assertEquals(region.getId(), seen.upserts.get(0).getId());
+
+            KeepRegion resized = region.withRadius(4);
+            first.apply(List.of(RegionChange.upsert(resized)), List::of);
+            seen = new Recorder();
+            second.refresh(seen);
+            assertEquals(1, seen.upserts.size());
+            assertEquals(4, seen.upserts.get(0).getRadius());
+
+            second.apply(List.of(RegionChange.remove(resized)), List::of);
+            seen = new Recorder();
+            first.refresh(seen);
+            assertEquals(Set.of(region.getId()), seen.removed);
+
+            seen = new Recorder();
+            second.refresh(seen);
+            assertTrue(seen.upserts.isEmpty() && seen.removed.isEmpty(), "own write was reported back");
+            assertEquals(0, store(directory, "third").load().size());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void conflictingLocalChangeIsReplacedByWinningEntry() throws Exception {
+        Path directory = Files.createTempDirectory("shared-regions");
+        try {
+            SharedRegionStore first = store(directory, "first");
+            SharedRegionStore second = store(directory, "second");
+            KeepRegion region = region("world", 0, 0, 2);
+            first.load();
+            first.apply(List.of(RegionChange.upsert(region)), List::of);
+            assertEquals(1, second.load().size());
+
+            first.apply(List.of(RegionChange.upsert(region.withRadius(3))), List::of);
+            Recorder reconciled = new Recorder();
+            second.listen(reconciled);
+            second.apply(List.of(RegionChange.upsert(region.withRadius(5))), List::of);
+            assertEquals(1, reconciled.upserts.size());
+            assertEquals(3, reconciled.upserts.get(0).getRadius());
+
+            List<KeepRegion> stored = store(directory, "third").load();
+            assertEquals(1, stored.size());
+            assertEquals(3, stored.get(0).getRadius());
+
+            Recorder polled = new Recorder();
+            second.refresh(polled);
+            assertTrue(polled.upserts.isEmpty() && polled.removed.isEmpty(), "winning entry was applied twice");
+
+            first.refresh(new Recorder());
+            first.apply(List.of(RegionChange.remove(region)), List::of);
+            reconciled = new Recorder();
+            second.listen(reconciled);
+            second.apply(List.of(RegionChange.upsert(region.withRadius(6))), List::of);
+            assertTrue(reconciled.upserts.isEmpty());
+            assertEquals(Set.of(region.getId()), reconciled.removed);
+            assertEquals(0, store(directory, "fourth").load().size());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void rescanPicksUpRegionsOfLaterLoadedWorld() throws Exception {
+        Path directory = Files.createTempDirectory("shared-regions");
+        try {
+            SharedRegionStore writer = store(directory, "writer");
+            writer.load();
+            KeepRegion region = region("world_nether", 3, 3, 1);
+            writer.apply(List.of(RegionChange.upsert(region)), List::of);
+
+            AtomicBoolean netherLoaded = new AtomicBoolean(false);
+            SharedRegionStore reader = new SharedRegionStore("reader", LOGGER, directory, List.of(),
+                    candidate -> netherLoaded.get() || !candidate.getWorldName().equals("world_nether"), 1000L);
+            assertEquals(0, reader.load().size());
+            Recorder seen = new Recorder();
+            reader.refresh(seen);
+            assertTrue(seen.upserts.isEmpty());
+
+            netherLoaded.set(true);
+            reader.rescan();
+            reader.refresh(seen);
+            assertEquals(1, seen.upserts.size());
+            assertEquals(region.getId(), seen.upserts.get(0).getId());
+            assertTrue(seen.removed.isEmpty());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void separateProcessesSerializeWritesAndWakeTheWatcher() throws Exception {
+        Path directory = Files.createTempDirectory("shared-regions");
+        SharedRegionStore watcher = new SharedRegionStore("watcher", LOGGER, directory, List.of(), region -> true,
+                TimeUnit.MINUTES.toMillis(5L));
+        try {
+            watcher.load();
+            Set<UUID> seen = ConcurrentHashMap.newKeySet();
+            watcher.watch((upserts, removed) -> {
+                for (KeepRegion region : upserts) {
+                    seen.add(region.getId());
+                }
+            });
+            List<Process> processes = new ArrayList<>();
+            for (int worker = 0; worker < WORKERS; worker++) {
+                processes.add(fork(directory, worker));
+            }
+            for (Process process : processes) {
+                assertTrue(process.waitFor(60L, TimeUnit.SECONDS), "worker did not finish");
+                assertEquals(0, process.exitValue());
+            }
+
+            List<KeepRegion> stored = store(directory, "reader").load();
+            assertEquals(WORKERS * WORKER_REGIONS, stored.size());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30L);
+            while (seen.size() < stored.size() && System.nanoTime() < deadline) {
+                Thread.sleep(50L);
+            }
+            assertEquals(stored.size(), seen.size());
+        } finally {
+            watcher.close();
+            delete(directory);
+        }
+    }
+
+    private static Process fork(Path directory, int worker) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), Worker.class.getName(),
+                directory.toString(), Integer.toString(worker))
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    private static SharedRegionStore store(Path directory, String name) {
+        return new SharedRegionStore(name, LOGGER, directory, List.of(), region -> true, 1000L);
+    }
+
+    private static KeepRegion region(String world, int centerX, int centerZ, int radius) {
+        return new KeepRegion(UUID.randomUUID(), world, null, centerX, centerZ, radius, "tester", Instant.EPOCH);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static final class Recorder implements SharedRegionStore.Listener {
+        private final List<KeepRegion> upserts = new ArrayList<>();
+        private final Set<UUID> removed = new HashSet<>();
+
+        @Override
+        public void onChange(List<KeepRegion> changed, Set<UUID> removedIds) {
+            upserts.addAll(changed);
+            removed.addAll(removedIds);
+        }
+    }
+
+    static final class Worker {
+        public static void main(String[] args) throws IOException {
+            int worker = Integer.parseInt(args[1]);
+            SharedRegionStore store = store(Path.of(args[0]), "worker-" + worker);
+            store.load();
+            for (int i = 0; i < WORKER_REGIONS; i++) {
+                store.apply(List.of(RegionChange.upsert(region("world", worker * 1000 + i, i, 1))), List::of);
+            }
+        }
+    }
+}